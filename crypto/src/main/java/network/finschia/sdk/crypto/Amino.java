@@ -1,14 +1,16 @@
 package network.finschia.sdk.crypto;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.bitcoinj.core.VarInt;
 import org.bouncycastle.jcajce.provider.digest.SHA256;
 
 import com.google.common.primitives.Bytes;
 
-// TODO: Amino encoding is only possible for privateKey and publicKey.
-//  We have to implement amino encoder for java.
+// The helpers here only prefix secp256k1 keys, use AminoEncoder for other amino types.
 public final class Amino {
     private static final int DISAMBIGUATION_BYTE_LENGTH = 3;
     private static final int TYPE_PREFIX_LENGTH = 4;
@@ -17,28 +19,138 @@ public final class Amino {
             TYPE_PREFIX_LENGTH + SECP256K1_KEY_SIZE_PREFIX_LENGTH;
     private static final int SECP256K1_KEY_SIZE = 33;
 
-    public static byte[] addAminoPrefix(String name, byte[] body) {
-        final byte[] prefix = makeAminoPrefix(name, body);
-        return Bytes.concat(prefix, body);
+    public static final String PUB_KEY_SECP256K1 = "tendermint/PubKeySecp256k1";
+    public static final String PRIV_KEY_SECP256K1 = "tendermint/PrivKeySecp256k1";
+    public static final String PUB_KEY_ED25519 = "tendermint/PubKeyEd25519";
+    public static final String PRIV_KEY_ED25519 = "tendermint/PrivKeyEd25519";
+    public static final String PUB_KEY_MULTISIG_THRESHOLD = "tendermint/PubKeyMultisigThreshold";
+
+    private static final ConcurrentMap<String, TypeInfo> registry = new ConcurrentHashMap<>();
+
+    static {
+        register(PUB_KEY_SECP256K1);
+        register(PRIV_KEY_SECP256K1);
+        register(PUB_KEY_ED25519);
+        register(PRIV_KEY_ED25519);
+        register(PUB_KEY_MULTISIG_THRESHOLD);
+    }
+
+    /**
+     * The disambiguation and prefix bytes of a registered amino type name.
+     */
+    public static final class TypeInfo {
+        private final String name;
+        private final byte[] disambiguation;
+        final byte[] prefix;
+
+        private TypeInfo(String name) {
+            final byte[] hash = new SHA256.Digest().digest(name.getBytes());
+            final int disambiguationByteStart = getNonZeroValueIndex(hash);
+            final int typePrefixStart = getNonZeroValueIndex(hash,
+                                                             disambiguationByteStart + DISAMBIGUATION_BYTE_LENGTH,
+                                                             hash.length);
+            this.name = name;
+            this.disambiguation = Arrays.copyOfRange(hash, disambiguationByteStart,
+                                                     disambiguationByteStart + DISAMBIGUATION_BYTE_LENGTH);
+            this.prefix = Arrays.copyOfRange(hash, typePrefixStart, typePrefixStart + TYPE_PREFIX_LENGTH);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public byte[] getDisambiguation() {
+            return disambiguation.clone();
+        }
+
+        public byte[] getPrefix() {
+            return prefix.clone();
+        }
     }
 
     private Amino() {}
 
+    /**
+     * Registers an amino type name, computing its disambiguation and prefix bytes once.
+     *
+     * @param name amino type name, e.g. {@code tendermint/PubKeySecp256k1}
+     * @return type info of the name
+     */
+    public static TypeInfo register(String name) {
+        return registry.computeIfAbsent(name, TypeInfo::new);
+    }
+
+    /**
+     * Returns the type info of a registered name, or computes it without registering an unregistered one, so
+     * that arbitrary names do not grow the registry.
+     *
+     * @param name amino type name
+     * @return type info of the name
+     */
+    static TypeInfo typeInfo(String name) {
+        final TypeInfo type = registry.get(name);
+        return type != null ? type : new TypeInfo(name);
+    }
+
+    static boolean isRegistered(String name) {
+        return registry.containsKey(name);
+    }
+
+    public static byte[] addAminoPrefix(String name, byte[] body) {
+        return addAminoPrefix(name, body, ByteBuffer.allocate(SECP256K1_KEY_AMINO_PREFIX_LEN + body.length))
+                .array();
+    }
+
+    /**
+     * Writes the body with its amino prefix into the buffer.
+     *
+     * @param name amino type name
+     * @param body secp256k1 key body
+     * @param out buffer to write the prefixed body into
+     * @return the given buffer
+     */
+    public static ByteBuffer addAminoPrefix(String name, byte[] body, ByteBuffer out) {
+        checkBodySize(body.length);
+        return out.put(typeInfo(name).prefix).put((byte) body.length).put(body);
+    }
+
     static byte[] makeAminoPrefix(String name, byte[] body) {
-        final byte[] hash = new SHA256.Digest().digest(name.getBytes());
-        final int disambiguationByteStart = getNonZeroValueIndex(hash);
-        final int typePrefixStart = getNonZeroValueIndex(hash,
-                                                         disambiguationByteStart + DISAMBIGUATION_BYTE_LENGTH,
-                                                         hash.length);
-        if (body.length > SECP256K1_KEY_SIZE) {
+        final byte[] typePrefix = typeInfo(name).prefix;
+        checkBodySize(body.length);
+        final byte[] sizePrefix = new VarInt(body.length).encode();
+
+        return Bytes.concat(typePrefix, sizePrefix);
+    }
+
+    private static void checkBodySize(int size) {
+        if (size > SECP256K1_KEY_SIZE) {
             throw new IllegalArgumentException(String.format(
                     "The body size is %d bytes. Currently, amino encoding is only supported for secp256k1 keys.",
-                    body.length));
+                    size));
         }
-        final byte[] sizePrefix = new VarInt(body.length).encode();
+    }
 
-        return Bytes.concat(Arrays.copyOfRange(hash, typePrefixStart, typePrefixStart + TYPE_PREFIX_LENGTH),
-                            sizePrefix);
+    /**
+     * Returns a view of the body of an amino prefixed key, without copying it.
+     * The position of the given buffer is moved after the body.
+     *
+     * @param bytes buffer positioned at the amino prefix
+     * @return buffer holding the body
+     */
+    public static ByteBuffer removeAminoPrefix(ByteBuffer bytes) {
+        if (bytes.remaining() < SECP256K1_KEY_AMINO_PREFIX_LEN) {
+            throw new IllegalArgumentException("Missing amino prefix");
+        }
+        bytes.position(bytes.position() + TYPE_PREFIX_LENGTH);
+        final int size = bytes.get() & 0xff;
+        if (size > bytes.remaining()) {
+            throw new IllegalArgumentException(String.format(
+                    "The body size is %d bytes, but only %d bytes remain", size, bytes.remaining()));
+        }
+        final ByteBuffer body = bytes.slice();
+        body.limit(size);
+        bytes.position(bytes.position() + size);
+        return body;
     }
 
     public static byte[] removeAminoPrefix(byte[] bytes) {
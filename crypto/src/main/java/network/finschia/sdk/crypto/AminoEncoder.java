@@ -0,0 +1,220 @@
+package network.finschia.sdk.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A streaming encoder of the amino binary format.
+ *
+ * <p>Everything is appended to a single growable buffer, so encoding is linear in the size of the
+ * output. Nested structs are written in place: {@link #beginField(int)} reserves one byte for the length
+ * prefix, and {@link #endField(int)} fills it in, moving the nested bytes only when the length does not
+ * fit in one byte.</p>
+ *
+ * <p>Registered structs and interfaces start with the type prefix of their amino name, see
+ * {@link Amino#register(String)}. Default values are not skipped, the caller decides which fields to
+ * write.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+public final class AminoEncoder {
+    public static final int WIRE_TYPE_VARINT = 0;
+    public static final int WIRE_TYPE_8_BYTE = 1;
+    public static final int WIRE_TYPE_BYTE_LENGTH = 2;
+    public static final int WIRE_TYPE_4_BYTE = 5;
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int MAX_FIELD_NUMBER = (1 << 29) - 1;
+
+    private byte[] buffer;
+    private int size;
+
+    public AminoEncoder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an encoder.
+     *
+     * @param initialCapacity initial size of the buffer in bytes, e.g. the expected size of the output
+     */
+    public AminoEncoder(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException(String.format("Negative capacity: %d", initialCapacity));
+        }
+        buffer = new byte[initialCapacity];
+    }
+
+    public AminoEncoder writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public AminoEncoder writeBytes(byte[] bytes) {
+        return writeBytes(bytes, 0, bytes.length);
+    }
+
+    public AminoEncoder writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    /**
+     * Writes an unsigned varint, the same as {@code binary.PutUvarint} of Go.
+     *
+     * @param value value treated as an unsigned 64-bit integer
+     * @return this encoder
+     */
+    public AminoEncoder writeUvarint(long value) {
+        ensureCapacity(uvarintSize(value));
+        size = putUvarint(buffer, size, value);
+        return this;
+    }
+
+    /**
+     * Writes the type prefix of a registered struct.
+     *
+     * @param name amino type name, whose prefix is computed again on each call if it is not registered
+     * @return this encoder
+     */
+    public AminoEncoder writeTypePrefix(String name) {
+        return writeTypePrefix(Amino.typeInfo(name));
+    }
+
+    public AminoEncoder writeTypePrefix(Amino.TypeInfo type) {
+        return writeBytes(type.prefix);
+    }
+
+    /**
+     * Writes the key of a field.
+     *
+     * @param fieldNumber field number, starting from 1
+     * @param wireType one of the {@code WIRE_TYPE_*} constants
+     * @return this encoder
+     */
+    public AminoEncoder writeFieldKey(int fieldNumber, int wireType) {
+        if (fieldNumber < 1 || fieldNumber > MAX_FIELD_NUMBER) {
+            throw new IllegalArgumentException(String.format("Invalid field number: %d", fieldNumber));
+        }
+        return writeUvarint(((long) fieldNumber << 3) | wireType);
+    }
+
+    public AminoEncoder writeUvarintField(int fieldNumber, long value) {
+        return writeFieldKey(fieldNumber, WIRE_TYPE_VARINT).writeUvarint(value);
+    }
+
+    /**
+     * Writes the bytes with their length prefix.
+     *
+     * @param bytes bytes to write
+     * @return this encoder
+     */
+    public AminoEncoder writeByteSlice(byte[] bytes) {
+        return writeUvarint(bytes.length).writeBytes(bytes);
+    }
+
+    public AminoEncoder writeByteSliceField(int fieldNumber, byte[] bytes) {
+        return writeFieldKey(fieldNumber, WIRE_TYPE_BYTE_LENGTH).writeByteSlice(bytes);
+    }
+
+    public AminoEncoder writeStringField(int fieldNumber, String value) {
+        return writeByteSliceField(fieldNumber, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Starts a length-prefixed field, e.g. a nested struct, whose content is written next.
+     *
+     * @param fieldNumber field number, starting from 1
+     * @return mark to pass to {@link #endField(int)}
+     */
+    public int beginField(int fieldNumber) {
+        writeFieldKey(fieldNumber, WIRE_TYPE_BYTE_LENGTH);
+        final int mark = size;
+        writeByte(0);
+        return mark;
+    }
+
+    /**
+     * Ends a length-prefixed field, writing the length of the content written since {@link #beginField(int)}.
+     *
+     * @param mark mark returned by {@link #beginField(int)}
+     * @return this encoder
+     */
+    public AminoEncoder endField(int mark) {
+        if (mark < 0 || mark >= size) {
+            throw new IllegalArgumentException(String.format("Invalid mark: %d", mark));
+        }
+        final int length = size - mark - 1;
+        final int lengthSize = uvarintSize(length);
+        if (lengthSize > 1) {
+            ensureCapacity(lengthSize - 1);
+            System.arraycopy(buffer, mark + 1, buffer, mark + lengthSize, length);
+            size += lengthSize - 1;
+        }
+        putUvarint(buffer, mark, length);
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes written.
+     */
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Discards the bytes written, keeping the buffer to encode the next value.
+     *
+     * @return this encoder
+     */
+    public AminoEncoder reset() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Returns the unsigned varint encoding of the value.
+     *
+     * @param value value treated as an unsigned 64-bit integer
+     * @return 1 to 10 bytes
+     */
+    public static byte[] encodeUvarint(long value) {
+        final byte[] out = new byte[uvarintSize(value)];
+        putUvarint(out, 0, value);
+        return out;
+    }
+
+    /**
+     * Returns the number of bytes of the unsigned varint encoding of the value.
+     */
+    public static int uvarintSize(long value) {
+        // 7 bits per byte, and zero still takes one byte
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    private static int putUvarint(byte[] out, int offset, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out[offset++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out[offset++] = (byte) value;
+        return offset;
+    }
+
+    private void ensureCapacity(int length) {
+        final int required = size + length;
+        if (required < 0) {
+            throw new IllegalStateException("Amino encoded bytes are too large");
+        }
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+}
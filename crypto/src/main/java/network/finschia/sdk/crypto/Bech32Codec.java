@@ -0,0 +1,259 @@
+package network.finschia.sdk.crypto;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Bech32 and Bech32m codec, as specified in BIP-173 and BIP-350.
+ *
+ * <p>The regrouping between 8-bit bytes and 5-bit groups and the checksum are computed in a single pass
+ * over the input, and the results are written into buffers given by the caller, so no intermediate
+ * array is allocated. Decoding validates the whole string, i.e. its length, its characters, its case and
+ * its checksum, and rejects non-zero padding bits.</p>
+ */
+public final class Bech32Codec {
+
+    /**
+     * The checksum variant.
+     */
+    public enum Encoding {
+        BECH32(1),
+        BECH32M(0x2bc830a3);
+
+        private final int constant;
+
+        Encoding(int constant) {
+            this.constant = constant;
+        }
+    }
+
+    private static final int MAX_LENGTH = 90;
+    private static final int CHECKSUM_LENGTH = 6;
+    private static final char SEPARATOR = '1';
+    private static final char[] CHARSET = "qpzry9x8gf2tvdw0s3jn54khce6mua7l".toCharArray();
+    private static final byte[] CHARSET_REV = new byte[128];
+    private static final int[] GENERATOR = { 0x3b6a57b2, 0x26508e6d, 0x1ea119fa, 0x3d4233dd, 0x2a1462b3 };
+
+    static {
+        Arrays.fill(CHARSET_REV, (byte) -1);
+        for (int i = 0; i < CHARSET.length; i++) {
+            CHARSET_REV[CHARSET[i]] = (byte) i;
+            CHARSET_REV[Character.toUpperCase(CHARSET[i])] = (byte) i;
+        }
+    }
+
+    private Bech32Codec() {}
+
+    /**
+     * Returns the length of the string encoding {@code dataLength} bytes with a human-readable part of
+     * {@code hrpLength} characters.
+     *
+     * @param hrpLength length of the human-readable part
+     * @param dataLength number of bytes to encode
+     * @return length of the encoded string
+     */
+    public static int encodedLength(int hrpLength, int dataLength) {
+        return hrpLength + 1 + (dataLength * 8 + 4) / 5 + CHECKSUM_LENGTH;
+    }
+
+    /**
+     * Encodes bytes.
+     *
+     * @param encoding checksum variant
+     * @param hrp human-readable part, written in lower case
+     * @param data bytes to encode
+     * @return encoded string
+     */
+    public static String encode(Encoding encoding, String hrp, byte[] data) {
+        final char[] out = new char[encodedLength(hrp.length(), data.length)];
+        encode(encoding, hrp, data, 0, data.length, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * Encodes bytes into a buffer, which must have room for
+     * {@link #encodedLength(int, int) encodedLength(hrp.length(), len)} characters.
+     *
+     * @param encoding checksum variant
+     * @param hrp human-readable part, written in lower case
+     * @param data buffer holding the bytes to encode
+     * @param off offset of the bytes to encode
+     * @param len number of bytes to encode
+     * @param out buffer to write the encoded string into
+     * @param outOff offset to write the encoded string at
+     * @return number of characters written
+     */
+    public static int encode(Encoding encoding, String hrp, byte[] data, int off, int len, char[] out,
+                             int outOff) {
+        if (hrp.isEmpty() || hrp.length() > 83) {
+            throw new IllegalArgumentException("Human-readable part must be 1 to 83 characters: " + hrp);
+        }
+        int o = outOff;
+        int chk = 1;
+        for (int i = 0; i < hrp.length(); i++) {
+            chk = polymodStep(chk) ^ (hrpChar(hrp, i) >>> 5);
+        }
+        chk = polymodStep(chk);
+        for (int i = 0; i < hrp.length(); i++) {
+            final char c = hrpChar(hrp, i);
+            chk = polymodStep(chk) ^ (c & 0x1f);
+            out[o++] = c;
+        }
+        out[o++] = SEPARATOR;
+
+        // regroup 8 bits into 5 bits, padding the last group with zeros
+        int acc = 0;
+        int bits = 0;
+        for (int i = off; i < off + len; i++) {
+            acc = (acc << 8) | (data[i] & 0xff);
+            bits += 8;
+            while (bits >= 5) {
+                bits -= 5;
+                final int value = (acc >>> bits) & 0x1f;
+                chk = polymodStep(chk) ^ value;
+                out[o++] = CHARSET[value];
+            }
+        }
+        if (bits > 0) {
+            final int value = (acc << (5 - bits)) & 0x1f;
+            chk = polymodStep(chk) ^ value;
+            out[o++] = CHARSET[value];
+        }
+
+        for (int i = 0; i < CHECKSUM_LENGTH; i++) {
+            chk = polymodStep(chk);
+        }
+        chk ^= encoding.constant;
+        for (int i = 0; i < CHECKSUM_LENGTH; i++) {
+            out[o++] = CHARSET[(chk >>> (5 * (CHECKSUM_LENGTH - 1 - i))) & 0x1f];
+        }
+        return o - outOff;
+    }
+
+    /**
+     * Returns the human-readable part of a bech32 string, in lower case.
+     *
+     * @param bech32 bech32 string
+     * @return human-readable part
+     * @throws IllegalArgumentException if the string has no separator
+     */
+    public static String hrp(CharSequence bech32) {
+        return bech32.subSequence(0, separatorIndex(bech32)).toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the number of bytes encoded in a bech32 string.
+     *
+     * @param bech32 bech32 string
+     * @return number of bytes
+     * @throws IllegalArgumentException if the string has no separator or is too short
+     */
+    public static int decodedLength(CharSequence bech32) {
+        final int dataChars = bech32.length() - separatorIndex(bech32) - 1 - CHECKSUM_LENGTH;
+        if (dataChars < 0) {
+            throw new IllegalArgumentException("Bech32 data is too short");
+        }
+        return dataChars * 5 / 8;
+    }
+
+    /**
+     * Validates a bech32 string and decodes its bytes into a buffer, which must have room for
+     * {@link #decodedLength(CharSequence)} bytes.
+     *
+     * @param encoding checksum variant
+     * @param bech32 bech32 string
+     * @param out buffer to write the decoded bytes into
+     * @param outOff offset to write the decoded bytes at
+     * @return number of bytes written
+     * @throws IllegalArgumentException if the string is not a valid bech32 string
+     */
+    public static int decode(Encoding encoding, CharSequence bech32, byte[] out, int outOff) {
+        final int length = bech32.length();
+        if (length < 8 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Invalid bech32 length: " + length);
+        }
+        final int separator = separatorIndex(bech32);
+        if (separator < 1 || length - separator - 1 < CHECKSUM_LENGTH) {
+            throw new IllegalArgumentException("Invalid bech32 separator position: " + separator);
+        }
+
+        boolean lower = false;
+        boolean upper = false;
+        int chk = 1;
+        for (int i = 0; i < separator; i++) {
+            final char c = bech32.charAt(i);
+            if (c < 33 || c > 126) {
+                throw new IllegalArgumentException("Invalid bech32 character at " + i);
+            }
+            lower |= c >= 'a' && c <= 'z';
+            upper |= c >= 'A' && c <= 'Z';
+            chk = polymodStep(chk) ^ (Character.toLowerCase(c) >>> 5);
+        }
+        chk = polymodStep(chk);
+        for (int i = 0; i < separator; i++) {
+            chk = polymodStep(chk) ^ (Character.toLowerCase(bech32.charAt(i)) & 0x1f);
+        }
+
+        // regroup 5 bits into 8 bits while feeding the checksum
+        final int dataEnd = length - CHECKSUM_LENGTH;
+        int o = outOff;
+        int acc = 0;
+        int bits = 0;
+        for (int i = separator + 1; i < length; i++) {
+            final char c = bech32.charAt(i);
+            final int value = c < 128 ? CHARSET_REV[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid bech32 character at " + i);
+            }
+            lower |= c >= 'a' && c <= 'z';
+            upper |= c >= 'A' && c <= 'Z';
+            chk = polymodStep(chk) ^ value;
+            if (i < dataEnd) {
+                acc = (acc << 5) | value;
+                bits += 5;
+                if (bits >= 8) {
+                    bits -= 8;
+                    out[o++] = (byte) (acc >>> bits);
+                }
+            }
+        }
+        if (lower && upper) {
+            throw new IllegalArgumentException("Bech32 string must not mix upper and lower case");
+        }
+        if (chk != encoding.constant) {
+            throw new IllegalArgumentException("Invalid bech32 checksum");
+        }
+        if (bits >= 5 || (acc & ((1 << bits) - 1)) != 0) {
+            throw new IllegalArgumentException("Invalid bech32 padding");
+        }
+        return o - outOff;
+    }
+
+    private static int separatorIndex(CharSequence bech32) {
+        for (int i = bech32.length() - 1; i >= 0; i--) {
+            if (bech32.charAt(i) == SEPARATOR) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Missing bech32 separator");
+    }
+
+    private static char hrpChar(String hrp, int i) {
+        final char c = hrp.charAt(i);
+        if (c < 33 || c > 126) {
+            throw new IllegalArgumentException("Invalid character in human-readable part: " + hrp);
+        }
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int polymodStep(int chk) {
+        final int top = chk >>> 25;
+        int next = (chk & 0x1ffffff) << 5;
+        for (int i = 0; i < 5; i++) {
+            if (((top >>> i) & 1) != 0) {
+                next ^= GENERATOR[i];
+            }
+        }
+        return next;
+    }
+}
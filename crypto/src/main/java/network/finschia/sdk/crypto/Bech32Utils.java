@@ -1,7 +1,5 @@
 package network.finschia.sdk.crypto;
 
-import java.io.ByteArrayOutputStream;
-
 /**
  * Implementation from
  * https://github.com/bitcoinj/bitcoinj/blob/master/core/src/main/java/org/bitcoinj/core/SegwitAddress.java
@@ -11,7 +9,10 @@ public final class Bech32Utils {
                                      final int fromBits, final int toBits, final boolean pad) {
         int acc = 0;
         int bits = 0;
-        final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        // the output size is known up front: a partial group is either padded or dropped
+        final long totalBits = (long) inLen * fromBits;
+        final byte[] out = new byte[(int) ((pad ? totalBits + toBits - 1 : totalBits) / toBits)];
+        int o = 0;
         final int maxv = (1 << toBits) - 1;
         final int max_acc = (1 << (fromBits + toBits - 1)) - 1;
         for (int i = 0; i < inLen; i++) {
@@ -20,15 +21,15 @@ public final class Bech32Utils {
             bits += fromBits;
             while (bits >= toBits) {
                 bits -= toBits;
-                out.write((acc >>> bits) & maxv);
+                out[o++] = (byte) ((acc >>> bits) & maxv);
             }
         }
         if (pad) {
-            if (bits > 0) { out.write((acc << (toBits - bits)) & maxv); }
+            if (bits > 0) { out[o++] = (byte) ((acc << (toBits - bits)) & maxv); }
         } else if (bits >= fromBits || ((acc << (toBits - bits)) & maxv) != 0) {
             throw new IllegalArgumentException("Could not convert bits, invalid padding");
         }
-        return out.toByteArray();
+        return out;
     }
 
     private Bech32Utils() {}
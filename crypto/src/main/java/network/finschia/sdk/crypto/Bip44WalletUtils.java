@@ -2,6 +2,12 @@ package network.finschia.sdk.crypto;
 
 import static org.web3j.crypto.Bip32ECKeyPair.HARDENED_BIT;
 
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.util.BigIntegers;
 import org.web3j.crypto.Bip32ECKeyPair;
 import org.web3j.crypto.MnemonicUtils;
@@ -23,20 +29,62 @@ public final class Bip44WalletUtils {
 
     public static byte[] generatePrivateKey(String mnemonic, int accountNumber, int index) {
         final byte[] seed = MnemonicUtils.generateSeed(mnemonic, null);
-        final Bip32ECKeyPair masterKeypair = Bip32ECKeyPair.generateKeyPair(seed);
-        final Bip32ECKeyPair bip44Keypair = generateBip44KeyPair(masterKeypair, accountNumber, index);
-        return BigIntegers.asUnsignedByteArray(LinkKeys.PRIVATE_KEY_SIZE, bip44Keypair.getPrivateKey());
+        return generatePrivateKey(generateChangeKeyPair(seed, accountNumber), index);
     }
 
-    static Bip32ECKeyPair generateBip44KeyPair(Bip32ECKeyPair master, int accountNumber, int index) {
+    /**
+     * Derives the key pair of the external chain of an account, i.e. {@code m/44'/438'/account'/0}.
+     *
+     * <p>The result can be kept and passed to {@link #generatePrivateKey(Bip32ECKeyPair, int)} to derive
+     * any number of addresses without running the BIP-39 seed generation and the hardened steps again.</p>
+     *
+     * @param seed BIP-39 seed of the mnemonic
+     * @param accountNumber account number
+     * @return key pair at {@code m/44'/438'/account'/0}
+     */
+    public static Bip32ECKeyPair generateChangeKeyPair(byte[] seed, int accountNumber) {
         final int LINK_COIN_TYPE = 438;
 
-        // m / Purpose' / coin_type' / Account' / Change / address_index
-        // m / 44'/438'/0'/0/0
+        // m / Purpose' / coin_type' / Account' / Change
+        // m / 44'/438'/0'/0
         final int[] path = {
-                44 | HARDENED_BIT, LINK_COIN_TYPE | HARDENED_BIT, accountNumber | HARDENED_BIT,
-                0, index
+                44 | HARDENED_BIT, LINK_COIN_TYPE | HARDENED_BIT, accountNumber | HARDENED_BIT, 0
         };
-        return Bip32ECKeyPair.deriveKeyPair(master, path);
+        return Bip32ECKeyPair.deriveKeyPair(Bip32ECKeyPair.generateKeyPair(seed), path);
+    }
+
+    /**
+     * Derives the private key of an address from the key pair returned by
+     * {@link #generateChangeKeyPair(byte[], int)}.
+     *
+     * <p>Non-hardened indexes only take one HMAC-SHA512 and one modular addition, the public key of the
+     * child is not computed. The given key pair is not modified, so it can be shared between threads
+     * once its public key point has been computed.</p>
+     *
+     * @param changeKeyPair key pair at {@code m/44'/438'/account'/0}
+     * @param index address index
+     * @return 32 bytes private key
+     */
+    public static byte[] generatePrivateKey(Bip32ECKeyPair changeKeyPair, int index) {
+        if ((index & HARDENED_BIT) != 0) {
+            final Bip32ECKeyPair child = Bip32ECKeyPair.deriveKeyPair(changeKeyPair, new int[] { index });
+            return BigIntegers.asUnsignedByteArray(LinkKeys.PRIVATE_KEY_SIZE, child.getPrivateKey());
+        }
+
+        // CKDpriv: I = HMAC-SHA512(c_par, serP(K_par) || ser32(i)), k_i = parse256(I_L) + k_par (mod n)
+        final HMac hmac = new HMac(new SHA512Digest());
+        hmac.init(new KeyParameter(changeKeyPair.getChainCode()));
+        final byte[] publicKey = changeKeyPair.getPublicKeyPoint().getEncoded(true);
+        hmac.update(publicKey, 0, publicKey.length);
+        hmac.update((byte) (index >>> 24));
+        hmac.update((byte) (index >>> 16));
+        hmac.update((byte) (index >>> 8));
+        hmac.update((byte) index);
+        final byte[] i = new byte[hmac.getMacSize()];
+        hmac.doFinal(i, 0);
+
+        final BigInteger il = new BigInteger(1, Arrays.copyOfRange(i, 0, 32));
+        final BigInteger privateKey = changeKeyPair.getPrivateKey().add(il).mod(ECDSASignature.curve.getN());
+        return BigIntegers.asUnsignedByteArray(LinkKeys.PRIVATE_KEY_SIZE, privateKey);
     }
 }
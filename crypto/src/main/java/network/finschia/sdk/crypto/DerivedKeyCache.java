@@ -0,0 +1,65 @@
+package network.finschia.sdk.crypto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.bouncycastle.jcajce.provider.digest.SHA256.Digest;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * An in-memory cache of the keys derived by the KDF of {@link KeyStore}.
+ *
+ * <p>Entries are keyed by the salt and the SHA-256 hash of the passphrase, so the passphrases themselves
+ * are not kept, and expire after the given time-to-live. Unlocking the same keystore again within the
+ * time-to-live skips bcrypt.</p>
+ */
+public final class DerivedKeyCache {
+
+    private final Cache<ByteBuffer, byte[]> cache;
+
+    /**
+     * Creates a cache.
+     *
+     * @param timeToLive how long an entry is kept after it is derived
+     * @param maximumSize the maximum number of entries
+     */
+    public DerivedKeyCache(Duration timeToLive, long maximumSize) {
+        cache = CacheBuilder.newBuilder()
+                            .expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS)
+                            .maximumSize(maximumSize)
+                            .build();
+    }
+
+    /**
+     * Discards all the cached keys.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.size();
+    }
+
+    byte[] get(byte[] salt, String passphrase, Supplier<byte[]> loader) {
+        final byte[] passphraseHash = new Digest().digest(passphrase.getBytes(StandardCharsets.UTF_8));
+        final ByteBuffer key = ByteBuffer.allocate(salt.length + passphraseHash.length)
+                                         .put(salt)
+                                         .put(passphraseHash);
+        key.flip();
+        try {
+            // concurrent lookups of the same key wait for a single derivation
+            return cache.get(key, loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new RuntimeException("Failed to derive the keystore key", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package network.finschia.sdk.crypto;
+
+import static org.web3j.crypto.Bip32ECKeyPair.HARDENED_BIT;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.bitcoinj.core.Base58;
+import org.bitcoinj.core.Sha256Hash;
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.jcajce.provider.digest.RIPEMD160;
+import org.bouncycastle.jcajce.provider.digest.SHA256;
+import org.bouncycastle.math.ec.ECPoint;
+import org.web3j.crypto.Bip32ECKeyPair;
+
+/**
+ * A BIP-32 extended public key, which derives the public keys of its non-hardened children without any
+ * private key.
+ *
+ * <p>A child is {@code parse256(I_L)*G + K}, where {@code I_L} is the left half of
+ * {@code HMAC-SHA512(c, serP(K) || ser32(i))}. The multiplication by G uses the precomputed comb table of
+ * {@link Secp256k1Generator}, so a child costs one comb multiplication and one point addition. Instances
+ * are immutable and can be shared between threads.</p>
+ */
+public final class ExtendedPublicKey {
+
+    private static final int XPUB_VERSION = 0x0488B21E;
+    private static final int SERIALIZED_SIZE = 78;
+    private static final int CHECKSUM_SIZE = 4;
+    private static final int CHAIN_CODE_SIZE = 32;
+
+    private final int depth;
+    private final int parentFingerprint;
+    private final int childNumber;
+    private final byte[] chainCode;
+    private final ECPoint publicPoint;
+    private final byte[] publicKey;
+
+    private ExtendedPublicKey(int depth, int parentFingerprint, int childNumber, byte[] chainCode,
+                              ECPoint publicPoint) {
+        this.depth = depth;
+        this.parentFingerprint = parentFingerprint;
+        this.childNumber = childNumber;
+        this.chainCode = chainCode;
+        this.publicPoint = publicPoint.normalize();
+        this.publicKey = this.publicPoint.getEncoded(true);
+    }
+
+    /**
+     * Returns the public part of an extended key pair.
+     *
+     * @param keyPair extended key pair
+     * @return extended public key
+     */
+    public static ExtendedPublicKey fromKeyPair(Bip32ECKeyPair keyPair) {
+        final ECPoint point = ECDSASignature.curve.getCurve().decodePoint(
+                keyPair.getPublicKeyPoint().getEncoded(true));
+        return new ExtendedPublicKey(keyPair.getDepth(), keyPair.getParentFingerprint(),
+                                     keyPair.getChildNumber(), keyPair.getChainCode().clone(), point);
+    }
+
+    /**
+     * Parses a Base58Check encoded extended public key, i.e. an {@code xpub} string.
+     *
+     * @param xpub Base58Check encoded extended public key
+     * @return extended public key
+     * @throws IllegalArgumentException if the string is not a valid extended public key
+     */
+    public static ExtendedPublicKey parse(String xpub) {
+        final byte[] data = Base58.decodeChecked(xpub);
+        if (data.length != SERIALIZED_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                    "Extended public key must be %d bytes, but input is %d bytes", SERIALIZED_SIZE,
+                    data.length));
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.getInt() != XPUB_VERSION) {
+            throw new IllegalArgumentException("Unsupported extended public key version");
+        }
+        final int depth = buffer.get() & 0xFF;
+        final int parentFingerprint = buffer.getInt();
+        final int childNumber = buffer.getInt();
+        final byte[] chainCode = new byte[CHAIN_CODE_SIZE];
+        buffer.get(chainCode);
+        final byte[] key = new byte[SERIALIZED_SIZE - buffer.position()];
+        buffer.get(key);
+        if (key[0] != 0x02 && key[0] != 0x03) {
+            throw new IllegalArgumentException("Extended public key must hold a compressed public key");
+        }
+        return new ExtendedPublicKey(depth, parentFingerprint, childNumber, chainCode,
+                                     ECDSASignature.curve.getCurve().decodePoint(key));
+    }
+
+    /**
+     * Serializes the extended public key as an {@code xpub} string.
+     *
+     * @return Base58Check encoded extended public key
+     */
+    public String toBase58() {
+        final ByteBuffer buffer = ByteBuffer.allocate(SERIALIZED_SIZE + CHECKSUM_SIZE);
+        buffer.putInt(XPUB_VERSION);
+        buffer.put((byte) depth);
+        buffer.putInt(parentFingerprint);
+        buffer.putInt(childNumber);
+        buffer.put(chainCode);
+        buffer.put(publicKey);
+        buffer.put(Sha256Hash.hashTwice(buffer.array(), 0, SERIALIZED_SIZE), 0, CHECKSUM_SIZE);
+        return Base58.encode(buffer.array());
+    }
+
+    /**
+     * Returns the compressed public key of this extended key.
+     *
+     * @return 33 bytes compressed public key
+     */
+    public byte[] getPublicKey() {
+        return publicKey.clone();
+    }
+
+    /**
+     * Derives the compressed public key of a non-hardened child.
+     *
+     * @param index child index, in the range [0, 2^31 - 1]
+     * @return 33 bytes compressed public key
+     * @throws IllegalArgumentException if the index is hardened or the child is invalid
+     */
+    public byte[] deriveChildPublicKey(int index) {
+        return deriveChildPoint(index).normalize().getEncoded(true);
+    }
+
+    /**
+     * Derives the compressed public keys of consecutive non-hardened children.
+     * All the points share a single field inversion when they are normalized.
+     *
+     * @param fromIndex index of the first child
+     * @param count number of children
+     * @return 33 bytes compressed public keys, in the index order
+     * @throws IllegalArgumentException if an index is hardened or a child is invalid
+     */
+    public byte[][] deriveChildPublicKeys(int fromIndex, int count) {
+        if (fromIndex < 0 || count < 0 || (long) fromIndex + count > 1L << 31) {
+            throw new IllegalArgumentException(
+                    "The children must be within the non-hardened indexes: " + fromIndex + ", " + count);
+        }
+        final ECPoint[] points = new ECPoint[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = deriveChildPoint(fromIndex + i);
+        }
+        ECDSASignature.curve.getCurve().normalizeAll(points);
+
+        final byte[][] publicKeys = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            publicKeys[i] = points[i].getEncoded(true);
+        }
+        return publicKeys;
+    }
+
+    /**
+     * Derives the extended public key of a non-hardened child.
+     *
+     * @param index child index, in the range [0, 2^31 - 1]
+     * @return extended public key of the child
+     * @throws IllegalArgumentException if the index is hardened or the child is invalid
+     */
+    public ExtendedPublicKey deriveChild(int index) {
+        final byte[] i = hmac(index);
+        final ECPoint point = childPoint(i);
+        // the fingerprint is the first 4 bytes of ripemd160(sha256(K_par))
+        final byte[] identifier = new RIPEMD160.Digest().digest(new SHA256.Digest().digest(publicKey));
+        return new ExtendedPublicKey(depth + 1, ByteBuffer.wrap(identifier).getInt(), index,
+                                     Arrays.copyOfRange(i, 32, 64), point);
+    }
+
+    private ECPoint deriveChildPoint(int index) {
+        return childPoint(hmac(index));
+    }
+
+    // I = HMAC-SHA512(c_par, serP(K_par) || ser32(i))
+    private byte[] hmac(int index) {
+        if ((index & HARDENED_BIT) != 0) {
+            throw new IllegalArgumentException("Cannot derive a hardened child from a public key: " + index);
+        }
+        final HMac hmac = new HMac(new SHA512Digest());
+        hmac.init(new KeyParameter(chainCode));
+        hmac.update(publicKey, 0, publicKey.length);
+        hmac.update((byte) (index >>> 24));
+        hmac.update((byte) (index >>> 16));
+        hmac.update((byte) (index >>> 8));
+        hmac.update((byte) index);
+        final byte[] i = new byte[hmac.getMacSize()];
+        hmac.doFinal(i, 0);
+        return i;
+    }
+
+    // K_i = parse256(I_L)*G + K_par, not normalized
+    private ECPoint childPoint(byte[] i) {
+        final BigInteger il = new BigInteger(1, Arrays.copyOfRange(i, 0, 32));
+        if (il.compareTo(ECDSASignature.curve.getN()) >= 0) {
+            throw new IllegalArgumentException("Invalid child, use the next index");
+        }
+        final ECPoint point = Secp256k1Generator.multiply(il).add(publicPoint);
+        if (point.isInfinity()) {
+            throw new IllegalArgumentException("Invalid child, use the next index");
+        }
+        return point;
+    }
+}
@@ -4,37 +4,32 @@ import static network.finschia.sdk.crypto.Amino.addAminoPrefix;
 import static network.finschia.sdk.crypto.Amino.removeAminoPrefix;
 import static network.finschia.sdk.crypto.SecureRandomUtils.secureRandom;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Map;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
-import org.apache.commons.io.output.WriterOutputStream;
-import org.bouncycastle.bcpg.ArmoredInputStream;
 import org.bouncycastle.jcajce.provider.digest.SHA256.Digest;
-import org.bouncycastle.openpgp.PGPUtil;
 
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
-import com.google.common.io.CharStreams;
 
 import at.favre.lib.crypto.bcrypt.BCrypt;
 
 public final class KeyStore {
     private static final int BCRYPT_SECURITY_PARAMETER = 12;
     private static final int SALT_BYTES_SIZE = 16;
-    private static final String PRIV_KEY_TYPE_SECP256K1 = "tendermint/PrivKeySecp256k1";
+    private static final String PRIV_KEY_TYPE_SECP256K1 = Amino.PRIV_KEY_SECP256K1;
     private static final Charset US_ASCII_CHARSET = StandardCharsets.US_ASCII;
     private static final BaseEncoding BASE16 = BaseEncoding.base16();
+    private static final int KEYSTORE_SIZE_HINT = 512;
 
     static final String KDF_TYPE = "bcrypt";
     final String kdf;
@@ -54,30 +49,43 @@ public final class KeyStore {
     }
 
     public byte[] getPrivateKey(String passphrase) {
-        return unarmorPrivateKey(passphrase);
+        return unarmorPrivateKey(deriveKey(passphrase, salt));
     }
 
-    private byte[] unarmorPrivateKey(String password) {
-        final byte[] bcryptKey = BCrypt.withDefaults().hash(BCRYPT_SECURITY_PARAMETER, salt,
-                                                            password.getBytes(StandardCharsets.UTF_8));
-        final byte[] encryptedKey = new Digest().digest(bcryptKey);
+    /**
+     * Decrypts the private key, reusing the key derived from the passphrase if it is in the cache.
+     *
+     * @param passphrase passphrase of the keystore
+     * @param cache cache of the derived keys, or null to always run the KDF
+     * @return private key
+     */
+    public byte[] getPrivateKey(String passphrase, DerivedKeyCache cache) {
+        if (cache == null) {
+            return getPrivateKey(passphrase);
+        }
+        return unarmorPrivateKey(cache.get(salt, passphrase, () -> deriveKey(passphrase, salt)));
+    }
+
+    private byte[] unarmorPrivateKey(byte[] encryptedKey) {
         final byte[] privateKeyBytes = Xsalsa20Symmetric.decryptSymmetric(armoredPrivateKey, encryptedKey);
         return removeAminoPrefix(privateKeyBytes);
     }
 
-    public String export() {
-        try (final ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            export(out);
-            return new String(out.toByteArray(), US_ASCII_CHARSET);
+    // the cost is fixed since it is not recorded in the keystore and must match the tendermint one
+    static byte[] deriveKey(String password, byte[] salt) {
+        final byte[] bcryptKey = BCrypt.withDefaults().hash(BCRYPT_SECURITY_PARAMETER, salt,
+                                                            password.getBytes(StandardCharsets.UTF_8));
+        return new Digest().digest(bcryptKey);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to export keystore", e);
-        }
+    public String export() {
+        return new String(armor(), US_ASCII_CHARSET);
     }
 
     public void export(Writer writer) {
-        try (final OutputStream out = new WriterOutputStream(writer, US_ASCII_CHARSET)) {
-            export(out);
+        try {
+            writer.write(export());
+            writer.flush();
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to export keystore", e);
@@ -85,21 +93,25 @@ public final class KeyStore {
     }
 
     public void export(OutputStream out) {
-        try (final TendermintArmoredOutputStream tOut = new TendermintArmoredOutputStream(out)
-        ) {
-            tOut.setHeader("salt", BASE16.lowerCase().encode(salt));
-            tOut.setHeader("kdf", kdf);
-            tOut.write(armoredPrivateKey);
+        try {
+            out.write(armor());
+            out.flush();
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to export keystore", e);
         }
     }
 
+    private byte[] armor() {
+        final Map<String, String> headers = new TreeMap<>();
+        headers.put("salt", BASE16.lowerCase().encode(salt));
+        headers.put("kdf", kdf);
+        return TendermintArmor.encode(headers, armoredPrivateKey);
+    }
+
     public static KeyStore load(Reader keyStoreData) {
-        try (final InputStream in = new ByteArrayInputStream(
-                CharStreams.toString(keyStoreData).getBytes(US_ASCII_CHARSET))) {
-            return decode(in);
+        try {
+            return decode(TendermintArmor.decode(readAll(keyStoreData)));
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to decode keystore data", e);
@@ -108,26 +120,30 @@ public final class KeyStore {
 
     public static KeyStore load(InputStream keystoreData) {
         try {
-            return decode(keystoreData);
+            return decode(TendermintArmor.decode(ByteBuffer.wrap(ByteStreams.toByteArray(keystoreData))));
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to decode keystore data", e);
         }
     }
 
-    private static KeyStore decode(InputStream in) throws IOException {
-        final ArmoredInputStream armored = (ArmoredInputStream) PGPUtil.getDecoderStream(in);
-        final Map<String, String> headers = parseHeader(armored.getArmorHeaders());
-
-        return new KeyStore(headers.get("kdf"),
-                            BASE16.decode(headers.get("salt").toUpperCase()),
-                            ByteStreams.toByteArray(armored));
+    private static KeyStore decode(TendermintArmor.Block armor) {
+        return new KeyStore(armor.headers.get("kdf"),
+                            BASE16.decode(armor.headers.get("salt").toUpperCase()),
+                            armor.data);
     }
 
-    private static Map<String, String> parseHeader(String[] headers) {
-        return Arrays.stream(headers)
-                     .map(Pattern.compile(": ")::split)
-                     .collect(Collectors.toMap(s -> s[0], s -> s[1]));
+    private static CharBuffer readAll(Reader reader) throws IOException {
+        CharBuffer buffer = CharBuffer.allocate(KEYSTORE_SIZE_HINT);
+        while (reader.read(buffer) >= 0) {
+            if (!buffer.hasRemaining()) {
+                final CharBuffer grown = CharBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                buffer = grown.put(buffer);
+            }
+        }
+        buffer.flip();
+        return buffer;
     }
 
     public static KeyStore createFromPrivateKey(byte[] privateKey, String password) {
@@ -142,9 +158,7 @@ public final class KeyStore {
     }
 
     private static byte[] armorPrivateKey(byte[] privateKey, String password, byte[] salt) {
-        final byte[] bcryptKey = BCrypt.withDefaults().hash(BCRYPT_SECURITY_PARAMETER, salt,
-                                                            password.getBytes(StandardCharsets.UTF_8));
-        final byte[] encryptedKey = new Digest().digest(bcryptKey);
+        final byte[] encryptedKey = deriveKey(password, salt);
         final byte[] encodedPrivateKey = addAminoPrefix(PRIV_KEY_TYPE_SECP256K1, privateKey);
         return Xsalsa20Symmetric.encryptSymmetric(encodedPrivateKey, encryptedKey);
     }
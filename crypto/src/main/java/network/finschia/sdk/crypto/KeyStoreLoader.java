@@ -0,0 +1,141 @@
+package network.finschia.sdk.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unlocks many keystores in parallel.
+ *
+ * <p>The KDF of a keystore is bcrypt with cost 12, which takes a few hundred milliseconds. The loader runs
+ * the unlocks on its own fixed-size thread pool, and optionally shares a {@link DerivedKeyCache} so
+ * keystores which were already unlocked skip bcrypt. The keystores not unlocked yet are cancelled as soon as one
+ * fails. Close the loader to stop its threads.</p>
+ */
+public final class KeyStoreLoader implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final DerivedKeyCache cache;
+
+    /**
+     * Creates a loader with one thread per available processor and no cache.
+     */
+    public KeyStoreLoader() {
+        this(Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * Creates a loader.
+     *
+     * @param parallelism the maximum number of keystores unlocked at the same time
+     * @param cache cache of the derived keys, or null to always run the KDF
+     */
+    public KeyStoreLoader(int parallelism, DerivedKeyCache cache) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        final AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "keystore-loader-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cache = cache;
+    }
+
+    /**
+     * Unlocks keystores which share the same passphrase.
+     *
+     * @param keyStores keystores to unlock
+     * @param passphrase passphrase of the keystores
+     * @return private keys, in the input order
+     */
+    public List<byte[]> unlock(List<KeyStore> keyStores, String passphrase) {
+        final List<Future<byte[]>> futures = new ArrayList<>(keyStores.size());
+        for (KeyStore keyStore : keyStores) {
+            futures.add(executor.submit(() -> keyStore.getPrivateKey(passphrase, cache)));
+        }
+
+        final List<byte[]> privateKeys = new ArrayList<>(futures.size());
+        try {
+            for (Future<byte[]> future : futures) {
+                privateKeys.add(await(future));
+            }
+        } catch (RuntimeException e) {
+            cancelAll(futures);
+            throw e;
+        }
+        return privateKeys;
+    }
+
+    /**
+     * Loads and unlocks all the keystore files of a directory.
+     *
+     * @param directory directory of the keystore files
+     * @param passphrase passphrase of the keystores
+     * @return private keys by file, in the order of the file names
+     * @throws IOException if the directory cannot be read
+     */
+    public Map<Path, byte[]> unlockDirectory(Path directory, String passphrase) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> paths = Files.list(directory)) {
+            files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        final Map<Path, Future<byte[]>> futures = new LinkedHashMap<>();
+        for (Path file : files) {
+            futures.put(file, executor.submit(() -> {
+                try (InputStream in = Files.newInputStream(file)) {
+                    return KeyStore.load(in).getPrivateKey(passphrase, cache);
+                }
+            }));
+        }
+
+        final Map<Path, byte[]> privateKeys = new LinkedHashMap<>();
+        for (Map.Entry<Path, Future<byte[]>> entry : futures.entrySet()) {
+            try {
+                privateKeys.put(entry.getKey(), await(entry.getValue()));
+            } catch (RuntimeException e) {
+                cancelAll(futures.values());
+                throw new RuntimeException("Failed to unlock keystore " + entry.getKey(), e.getCause());
+            }
+        }
+        return privateKeys;
+    }
+
+    private static byte[] await(Future<byte[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while unlocking keystores", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to unlock keystore", e.getCause());
+        }
+    }
+
+    // the keystores being unlocked finish, since bcrypt does not check interrupts
+    private static void cancelAll(Collection<Future<byte[]>> futures) {
+        for (Future<byte[]> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,315 @@
+package network.finschia.sdk.crypto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A single file holding many private keys, each encrypted with xsalsa20-poly1305.
+ *
+ * <p>The file starts with a header made of a magic, a version, the bcrypt salt and an encrypted check
+ * value, followed by append-only records of {@code address length (1) | address | ciphertext length (4) |
+ * CRC32 of the preceding fields (4) | ciphertext}. The KDF of {@link KeyStore} runs once when the vault is
+ * opened, the file is mapped with {@link FileChannel#map} and an in-memory index maps each address to the
+ * offset of its latest record, so a lookup decrypts only the requested key and a new key is appended without
+ * rewriting the file.</p>
+ *
+ * <p>The ciphertext holds the address followed by the key, so a record moved to another address is rejected
+ * when it is decrypted. A record cut off at the end of the file, by a write which did not complete, is dropped
+ * when the vault is opened, while a record whose fields do not match their checksum fails the opening.</p>
+ *
+ * <p>A vault can be shared between threads, and its file is locked while it is open, so no other process appends
+ * to it at the same time. Its file can not exceed 2GB.</p>
+ */
+public final class KeyVault implements Closeable {
+
+    private static final byte[] MAGIC = "FKV".getBytes(StandardCharsets.US_ASCII);
+    private static final byte VERSION = 1;
+    private static final int SALT_BYTES_SIZE = 16;
+    private static final byte[] CHECK_VALUE = new byte[32];
+    // nonce (24) + check value (32) + poly1305 tag (16)
+    private static final int CHECK_SIZE = 24 + CHECK_VALUE.length + 16;
+    private static final int HEADER_SIZE = MAGIC.length + 1 + SALT_BYTES_SIZE + CHECK_SIZE;
+    // ciphertext length (4) + CRC32 (4)
+    private static final int LENGTH_AND_CHECKSUM_SIZE = 8;
+
+    private final FileChannel channel;
+    private final byte[] secretKey;
+    private final Map<ByteBuffer, Integer> index = new HashMap<>();
+    private MappedByteBuffer mapped;
+    private int size;
+
+    private KeyVault(FileChannel channel, byte[] secretKey, int size) throws IOException {
+        this.channel = channel;
+        this.secretKey = secretKey;
+        this.size = size;
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Opens a vault, creating it if the file does not exist or is empty.
+     *
+     * @param path path of the vault file
+     * @param passphrase passphrase of the vault
+     * @return opened vault
+     * @throws IOException if the file cannot be read or written, it is opened by another vault or it has a
+     *                     corrupted record
+     * @throws IllegalArgumentException if the file is not a vault or the passphrase is wrong
+     */
+    public static KeyVault open(Path path, String passphrase) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                     StandardOpenOption.WRITE);
+        try {
+            lock(channel);
+            if (channel.size() == 0) {
+                return create(channel, passphrase);
+            }
+            return load(channel, passphrase);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // the lock is released when the channel is closed
+    private static void lock(FileChannel channel) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IOException("Key vault is opened by another vault");
+        }
+    }
+
+    private static KeyVault create(FileChannel channel, String passphrase) throws IOException {
+        final byte[] salt = new byte[SALT_BYTES_SIZE];
+        SecureRandomUtils.secureRandom().nextBytes(salt);
+        final byte[] secretKey = KeyStore.deriveKey(passphrase, salt);
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).put(VERSION).put(salt).put(Xsalsa20Symmetric.encryptSymmetric(CHECK_VALUE, secretKey));
+        header.flip();
+        writeFully(channel, header, 0);
+        channel.force(false);
+        return new KeyVault(channel, secretKey, HEADER_SIZE);
+    }
+
+    private static KeyVault load(FileChannel channel, String passphrase) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Not a key vault file");
+        }
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Key vault file is too large");
+        }
+        final MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        final byte[] magic = new byte[MAGIC.length];
+        file.get(magic);
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new IllegalArgumentException("Not a key vault file");
+        }
+        final byte version = file.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException(String.format("Unsupported key vault version: %d", version));
+        }
+        final byte[] salt = new byte[SALT_BYTES_SIZE];
+        file.get(salt);
+        final byte[] check = new byte[CHECK_SIZE];
+        file.get(check);
+
+        final byte[] secretKey = KeyStore.deriveKey(passphrase, salt);
+        try {
+            Xsalsa20Symmetric.decryptSymmetric(check, secretKey);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Wrong passphrase for the key vault", e);
+        }
+
+        // index the records, the latest record of an address wins
+        final Map<ByteBuffer, Integer> offsets = new HashMap<>();
+        int position = HEADER_SIZE;
+        while (true) {
+            final int next = nextRecord(file, position);
+            if (next < 0) {
+                break;
+            }
+            final byte[] address = new byte[file.get(position) & 0xff];
+            file.position(position + 1);
+            file.get(address);
+            offsets.put(ByteBuffer.wrap(address), position);
+            position = next;
+        }
+        if (position < channel.size()) {
+            // drop the record which was not completely appended at the end
+            channel.truncate(position);
+        }
+
+        final KeyVault vault = new KeyVault(channel, secretKey, position);
+        vault.index.putAll(offsets);
+        return vault;
+    }
+
+    // returns the offset after the record at position, or -1 if the file ends before the record does
+    private static int nextRecord(ByteBuffer file, int position) throws IOException {
+        final int limit = file.limit();
+        if (position + 1 > limit) {
+            return -1;
+        }
+        final int addressLength = file.get(position) & 0xff;
+        final int lengthOffset = position + 1 + addressLength;
+        if (lengthOffset + LENGTH_AND_CHECKSUM_SIZE > limit) {
+            return -1;
+        }
+        // a corrupted length in the middle of the file must not be taken for the end of the file
+        final int checksum = file.getInt(lengthOffset + 4);
+        if (checksum != checksum(file, position, lengthOffset + 4)) {
+            throw new IOException(String.format("Corrupted key vault record at %d", position));
+        }
+        final int cipherLength = file.getInt(lengthOffset);
+        final long end = (long) lengthOffset + LENGTH_AND_CHECKSUM_SIZE + cipherLength;
+        if (cipherLength < 0 || end > limit) {
+            return -1;
+        }
+        return (int) end;
+    }
+
+    private static int checksum(ByteBuffer buffer, int from, int to) {
+        final ByteBuffer fields = buffer.duplicate();
+        fields.limit(to).position(from);
+        final CRC32 crc = new CRC32();
+        crc.update(fields);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Encrypts and appends a private key. An existing key of the address is replaced.
+     *
+     * @param address raw address bytes, at most 255 bytes
+     * @param privateKey private key
+     * @throws IOException if the record cannot be written
+     */
+    public void put(byte[] address, byte[] privateKey) throws IOException {
+        if (address.length > 0xff) {
+            throw new IllegalArgumentException("Address must be at most 255 bytes: " + address.length);
+        }
+        final byte[] plainText = new byte[address.length + privateKey.length];
+        System.arraycopy(address, 0, plainText, 0, address.length);
+        System.arraycopy(privateKey, 0, plainText, address.length, privateKey.length);
+        final byte[] cipherText = Xsalsa20Symmetric.encryptSymmetric(plainText, secretKey);
+        Arrays.fill(plainText, (byte) 0);
+
+        final int lengthOffset = 1 + address.length;
+        final ByteBuffer record = ByteBuffer.allocate(lengthOffset + LENGTH_AND_CHECKSUM_SIZE + cipherText.length);
+        record.put((byte) address.length).put(address).putInt(cipherText.length);
+        record.putInt(checksum(record, 0, lengthOffset + 4)).put(cipherText);
+        record.flip();
+
+        synchronized (this) {
+            if ((long) size + record.remaining() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Key vault file is full");
+            }
+            writeFully(channel, record, size);
+            channel.force(false);
+            index.put(ByteBuffer.wrap(address.clone()), size);
+            size += record.limit();
+        }
+    }
+
+    /**
+     * Decrypts the private key of an address.
+     *
+     * @param address raw address bytes
+     * @return private key
+     * @throws IllegalArgumentException if the vault has no key for the address
+     * @throws IllegalStateException if the record of the address holds the key of another address
+     */
+    public byte[] getPrivateKey(byte[] address) {
+        final byte[] cipherText;
+        synchronized (this) {
+            final Integer position = index.get(ByteBuffer.wrap(address));
+            if (position == null) {
+                throw new IllegalArgumentException("No key in the vault for the address");
+            }
+            if (mapped.limit() < size) {
+                try {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to map the key vault", e);
+                }
+            }
+            final int lengthOffset = position + 1 + address.length;
+            cipherText = new byte[mapped.getInt(lengthOffset)];
+            final ByteBuffer record = mapped.duplicate();
+            record.position(lengthOffset + LENGTH_AND_CHECKSUM_SIZE);
+            record.get(cipherText);
+        }
+        final byte[] plainText = Xsalsa20Symmetric.decryptSymmetric(cipherText, secretKey);
+        try {
+            if (plainText.length < address.length
+                || !Arrays.equals(address, Arrays.copyOf(plainText, address.length))) {
+                throw new IllegalStateException("The record of the address holds the key of another address");
+            }
+            return Arrays.copyOfRange(plainText, address.length, plainText.length);
+        } finally {
+            Arrays.fill(plainText, (byte) 0);
+        }
+    }
+
+    /**
+     * Returns whether the vault has a key for an address.
+     *
+     * @param address raw address bytes
+     * @return true if the vault has a key
+     */
+    public synchronized boolean contains(byte[] address) {
+        return index.containsKey(ByteBuffer.wrap(address));
+    }
+
+    /**
+     * Returns the addresses of the keys in the vault.
+     *
+     * @return raw address bytes
+     */
+    public synchronized List<byte[]> getAddresses() {
+        final List<byte[]> addresses = new ArrayList<>(index.size());
+        for (ByteBuffer address : index.keySet()) {
+            addresses.add(address.array().clone());
+        }
+        return addresses;
+    }
+
+    /**
+     * Returns the number of keys in the vault.
+     *
+     * @return number of keys
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -13,11 +13,8 @@ import java.security.Security;
 import java.security.spec.ECGenParameterSpec;
 
 import org.bouncycastle.crypto.RuntimeCryptoException;
-import org.bouncycastle.jce.ECNamedCurveTable;
 import org.bouncycastle.jce.interfaces.ECPrivateKey;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
-import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
-import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.BigIntegers;
 
 /**
@@ -63,9 +60,19 @@ public final class LinkKeys {
     }
 
     public static byte[] getPublicKey(byte[] privateKey, boolean compressed) {
-        final ECNamedCurveParameterSpec spec = ECNamedCurveTable.getParameterSpec("secp256k1");
-        final ECPoint pointQ = spec.getG().multiply(new BigInteger(1, privateKey));
-        return pointQ.getEncoded(compressed);
+        return Secp256k1Generator.publicKey(privateKey, compressed);
+    }
+
+    /**
+     * Derives the public keys of many private keys at once.
+     * All the points share a single field inversion when they are normalized.
+     *
+     * @param privateKeys private keys to derive the public keys from
+     * @param compressed whether to return the compressed encodings
+     * @return encoded public keys, in the input order
+     */
+    public static byte[][] getPublicKeys(byte[][] privateKeys, boolean compressed) {
+        return Secp256k1Generator.publicKeys(privateKeys, compressed);
     }
 
 }
@@ -0,0 +1,61 @@
+package network.finschia.sdk.crypto;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.FixedPointUtil;
+
+/**
+ * Fixed-base multiplication by the secp256k1 generator.
+ *
+ * <p>The curve is the one cached in {@link ECDSASignature#curve}, and the windowed comb table of its
+ * generator is precomputed once when this class is loaded, so every {@code k*G} only costs the comb
+ * additions.</p>
+ */
+final class Secp256k1Generator {
+
+    private static final BigInteger N = ECDSASignature.curve.getN();
+    private static final ECPoint G = ECDSASignature.curve.getG();
+    private static final ECMultiplier MULTIPLIER = new FixedPointCombMultiplier();
+
+    static {
+        FixedPointUtil.precompute(G);
+    }
+
+    private Secp256k1Generator() {}
+
+    /**
+     * Returns {@code k*G} in Jacobian coordinates, i.e. not normalized.
+     */
+    static ECPoint multiply(BigInteger k) {
+        // the comb table only covers scalars up to the bit length of the curve order
+        if (k.bitLength() > N.bitLength()) {
+            k = k.mod(N);
+        }
+        return MULTIPLIER.multiply(G, k);
+    }
+
+    static byte[] publicKey(byte[] privateKey, boolean compressed) {
+        return multiply(new BigInteger(1, privateKey)).getEncoded(compressed);
+    }
+
+    /**
+     * Derives the public keys of many private keys, normalizing all the points with a single field
+     * inversion.
+     */
+    static byte[][] publicKeys(byte[][] privateKeys, boolean compressed) {
+        final ECPoint[] points = new ECPoint[privateKeys.length];
+        for (int i = 0; i < privateKeys.length; i++) {
+            points[i] = multiply(new BigInteger(1, privateKeys[i]));
+        }
+        ECDSASignature.curve.getCurve().normalizeAll(points);
+
+        final byte[][] publicKeys = new byte[points.length][];
+        for (int i = 0; i < points.length; i++) {
+            publicKeys[i] = points[i].getEncoded(compressed);
+        }
+        return publicKeys;
+    }
+}
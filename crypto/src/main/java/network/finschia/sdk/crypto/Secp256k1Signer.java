@@ -0,0 +1,198 @@
+package network.finschia.sdk.crypto;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.signers.DSAKCalculator;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.BigIntegers;
+
+/**
+ * A long-lived secp256k1 signer bound to a single private key.
+ *
+ * <p>The private scalar and the public point are parsed once at construction, and every nonce point
+ * {@code k*G} is computed with the fixed-base comb table of {@link Secp256k1Generator}. Instances are
+ * immutable and can be shared between threads.</p>
+ *
+ * <p>Signatures are deterministic (RFC 6979 with HMAC-SHA256) and normalized to the lower half of the
+ * curve order, so they are byte-identical to the ones produced by {@link ECDSASignature}.</p>
+ */
+public final class Secp256k1Signer {
+
+    private static final BigInteger N = ECDSASignature.curve.getN();
+    private static final BigInteger HALF_N = N.shiftRight(1);
+
+    // the calculator is re-initialised with the key and message on every call, so one per thread is enough
+    private static final ThreadLocal<DSAKCalculator> K_CALCULATOR =
+            ThreadLocal.withInitial(() -> new HMacDSAKCalculator(new SHA256Digest()));
+
+    private final BigInteger privateKey;
+    private final ECPoint publicPoint;
+    private final byte[] uncompressedPublicKey;
+
+    /**
+     * Creates a signer for the given private key.
+     *
+     * @param privateKey big-endian private key bytes
+     * @throws IllegalArgumentException if the key is not in the range [1, n - 1]
+     */
+    public Secp256k1Signer(byte[] privateKey) {
+        final BigInteger d = new BigInteger(1, privateKey);
+        if (d.signum() == 0 || d.compareTo(N) >= 0) {
+            throw new IllegalArgumentException("Private key must be in the range [1, n - 1]");
+        }
+        this.privateKey = d;
+        this.publicPoint = Secp256k1Generator.multiply(d).normalize();
+        this.uncompressedPublicKey = publicPoint.getEncoded(false);
+    }
+
+    /**
+     * Returns the public key point of this signer.
+     *
+     * @return normalized public key point
+     */
+    public ECPoint getPublicPoint() {
+        return publicPoint;
+    }
+
+    /**
+     * Returns the encoded public key of this signer.
+     *
+     * @param compressed whether to return the 33 bytes compressed encoding or the 65 bytes uncompressed one
+     * @return encoded public key
+     */
+    public byte[] getPublicKey(boolean compressed) {
+        return compressed ? publicPoint.getEncoded(true) : uncompressedPublicKey.clone();
+    }
+
+    /**
+     * Generates a signature for the given message.
+     *
+     * @param message Hash of the data to sign.
+     * @return the R and S components of the signature, wrapped.
+     */
+    public BigInteger[] generateSignature(byte[] message) {
+        final Signature sig = sign(message, calculateE(message));
+        return new BigInteger[] { sig.r, sig.s };
+    }
+
+    /**
+     * Signs the given message.
+     *
+     * <p>Use this when the recovery id is not needed, e.g. for cosmos transactions which carry the public
+     * key separately.</p>
+     *
+     * @param message Hash of the data to sign.
+     * @return 32 bytes for R + 32 bytes for S
+     */
+    public byte[] sign(byte[] message) {
+        return sign(message, calculateE(message)).serialize(false);
+    }
+
+    /**
+     * Signs the given message and serializes the result with its recovery id.
+     *
+     * <p>The recovery id is taken from the nonce point R while signing, so no public key recovery is
+     * performed.</p>
+     *
+     * @param message Hash of the data to sign.
+     * @return 32 bytes for R + 32 bytes for S + 1 byte for recovery id
+     */
+    public byte[] signRecoverable(byte[] message) {
+        return sign(message, calculateE(message)).serialize(true);
+    }
+
+    /**
+     * Returns the recovery id of a signature generated by this signer.
+     *
+     * <p>The nonce is reconstructed as {@code k = s^-1 * (e + r * d)}, so a single fixed-base
+     * multiplication gives back R.</p>
+     *
+     * @param sig     the R and S components of the signature, wrapped.
+     * @param message Hash of the data that was signed.
+     * @return recovery id between 0 and 3, inclusive
+     * @throws IllegalArgumentException if the signature was not generated by this signer
+     */
+    byte findRecoveryId(BigInteger[] sig, byte[] message) {
+        final BigInteger r = sig[0];
+        final BigInteger s = sig[1];
+        if (r.signum() <= 0 || r.compareTo(N) >= 0 || s.signum() <= 0 || s.compareTo(N) >= 0) {
+            throw new IllegalArgumentException("r and s must be in the range [1, n - 1]");
+        }
+        final BigInteger k = s.modInverse(N).multiply(calculateE(message).add(privateKey.multiply(r))).mod(N);
+        final ECPoint point = Secp256k1Generator.multiply(k).normalize();
+        final BigInteger x = point.getAffineXCoord().toBigInteger();
+        if (!x.mod(N).equals(r)) {
+            throw new IllegalArgumentException("The signature was not generated by this key");
+        }
+        return recoveryId(point, x);
+    }
+
+    private Signature sign(byte[] message, BigInteger e) {
+        final DSAKCalculator kCalculator = K_CALCULATOR.get();
+        kCalculator.init(N, privateKey, message);
+
+        BigInteger r;
+        BigInteger s;
+        byte recId;
+        do {
+            BigInteger k;
+            do {
+                k = kCalculator.nextK();
+                final ECPoint point = Secp256k1Generator.multiply(k).normalize();
+                final BigInteger x = point.getAffineXCoord().toBigInteger();
+                r = x.mod(N);
+                recId = recoveryId(point, x);
+            } while (r.signum() == 0);
+
+            s = k.modInverse(N).multiply(e.add(privateKey.multiply(r))).mod(N);
+        } while (s.signum() == 0);
+
+        if (s.compareTo(HALF_N) > 0) {
+            // negating s negates the nonce, which flips the parity of R's y-coordinate
+            s = N.subtract(s);
+            recId ^= 1;
+        }
+        return new Signature(r, s, recId);
+    }
+
+    // bit 0: parity of R's y-coordinate, bit 1: whether R's x-coordinate overflowed the curve order
+    private static byte recoveryId(ECPoint point, BigInteger x) {
+        final int yParity = point.getAffineYCoord().testBitZero() ? 1 : 0;
+        final int overflow = x.compareTo(N) >= 0 ? 2 : 0;
+        return (byte) (yParity | overflow);
+    }
+
+    // same truncation rule as ECDSASigner for messages longer than the curve order
+    static BigInteger calculateE(byte[] message) {
+        final int messageBitLength = message.length * 8;
+        final BigInteger e = new BigInteger(1, message);
+        if (N.bitLength() < messageBitLength) {
+            return e.shiftRight(messageBitLength - N.bitLength());
+        }
+        return e;
+    }
+
+    private static final class Signature {
+        final BigInteger r;
+        final BigInteger s;
+        final byte recId;
+
+        Signature(BigInteger r, BigInteger s, byte recId) {
+            this.r = r;
+            this.s = s;
+            this.recId = recId;
+        }
+
+        byte[] serialize(boolean withRecoveryId) {
+            final byte[] out = new byte[withRecoveryId ? 65 : 64];
+            System.arraycopy(BigIntegers.asUnsignedByteArray(32, r), 0, out, 0, 32);
+            System.arraycopy(BigIntegers.asUnsignedByteArray(32, s), 0, out, 32, 32);
+            if (withRecoveryId) {
+                out[64] = recId;
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package network.finschia.sdk.crypto;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Verifies secp256k1 ECDSA signatures in the form produced by {@link Secp256k1Signer}.
+ *
+ * <p>As in the cosmos-sdk, a signature is only accepted when its S component is in the lower half of the
+ * curve order. The message is the hash of the signed data, the same input given to
+ * {@link Secp256k1Signer#sign(byte[])}.</p>
+ *
+ * <p>Batches share one {@code modInverse} for all S components through Montgomery's trick, compute
+ * {@code u1*G + u2*Q} with {@link ECAlgorithms#sumOfTwoMultiplies} and normalize all the resulting points
+ * with a single field inversion. Batches larger than {@link #PARALLEL_THRESHOLD} are split and verified on
+ * the common fork-join pool.</p>
+ */
+public final class Secp256k1Verifier {
+
+    /**
+     * The number of signatures from which a batch is split across the common fork-join pool.
+     */
+    public static final int PARALLEL_THRESHOLD = 64;
+
+    private static final BigInteger N = ECDSASignature.curve.getN();
+    private static final BigInteger HALF_N = N.shiftRight(1);
+    private static final int SIGNATURE_SIZE = 64;
+    private static final int COMPRESSED_KEY_SIZE = 33;
+    private static final int UNCOMPRESSED_KEY_SIZE = 65;
+
+    private Secp256k1Verifier() {}
+
+    /**
+     * Verifies a signature.
+     *
+     * @param publicKey encoded public key, compressed or not
+     * @param message   Hash of the data that was signed.
+     * @param signature 32 bytes for R + 32 bytes for S, optionally followed by the recovery id
+     * @return true if the signature is valid
+     */
+    public static boolean verify(byte[] publicKey, byte[] message, byte[] signature) {
+        return verifyBatch(new byte[][] { publicKey }, new byte[][] { message }, new byte[][] { signature })[0];
+    }
+
+    /**
+     * Verifies signatures in a batch.
+     *
+     * @param publicKeys encoded public keys, compressed or not
+     * @param messages   Hashes of the data that were signed.
+     * @param signatures 32 bytes for R + 32 bytes for S, optionally followed by the recovery id
+     * @return whether each signature is valid, in the input order
+     * @throws IllegalArgumentException if the arrays do not have the same length
+     */
+    public static boolean[] verifyBatch(byte[][] publicKeys, byte[][] messages, byte[][] signatures) {
+        if (publicKeys.length != messages.length || publicKeys.length != signatures.length) {
+            throw new IllegalArgumentException(String.format(
+                    "The number of public keys(%d), messages(%d) and signatures(%d) must be the same",
+                    publicKeys.length, messages.length, signatures.length));
+        }
+
+        final boolean[] results = new boolean[publicKeys.length];
+        final VerifyTask task = new VerifyTask(publicKeys, messages, signatures, results, 0, results.length);
+        if (results.length > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+        return results;
+    }
+
+    /**
+     * Verifies signatures in a batch.
+     *
+     * @param publicKeys encoded public keys, compressed or not
+     * @param messages   Hashes of the data that were signed.
+     * @param signatures 32 bytes for R + 32 bytes for S, optionally followed by the recovery id
+     * @return true if all the signatures are valid
+     * @throws IllegalArgumentException if the arrays do not have the same length
+     */
+    public static boolean verifyAll(byte[][] publicKeys, byte[][] messages, byte[][] signatures) {
+        for (boolean result : verifyBatch(publicKeys, messages, signatures)) {
+            if (!result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class VerifyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[][] publicKeys;
+        private final byte[][] messages;
+        private final byte[][] signatures;
+        private final boolean[] results;
+        private final int from;
+        private final int to;
+
+        VerifyTask(byte[][] publicKeys, byte[][] messages, byte[][] signatures, boolean[] results,
+                   int from, int to) {
+            this.publicKeys = publicKeys;
+            this.messages = messages;
+            this.signatures = signatures;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new VerifyTask(publicKeys, messages, signatures, results, from, mid),
+                          new VerifyTask(publicKeys, messages, signatures, results, mid, to));
+                return;
+            }
+            verifyRange();
+        }
+
+        private void verifyRange() {
+            final int size = to - from;
+            final BigInteger[] rs = new BigInteger[size];
+            final BigInteger[] ss = new BigInteger[size];
+            final ECPoint[] qs = new ECPoint[size];
+            for (int i = 0; i < size; i++) {
+                parse(i, rs, ss, qs);
+            }
+
+            final BigInteger[] ws = batchInverse(ss);
+
+            final ECPoint[] points = new ECPoint[size];
+            for (int i = 0; i < size; i++) {
+                if (ws[i] == null) {
+                    continue;
+                }
+                final BigInteger e = Secp256k1Signer.calculateE(messages[from + i]);
+                final BigInteger u1 = e.multiply(ws[i]).mod(N);
+                final BigInteger u2 = rs[i].multiply(ws[i]).mod(N);
+                points[i] = ECAlgorithms.sumOfTwoMultiplies(ECDSASignature.curve.getG(), u1, qs[i], u2);
+            }
+
+            // normalizeAll skips the null entries and shares one field inversion among the others
+            ECDSASignature.curve.getCurve().normalizeAll(points);
+
+            for (int i = 0; i < size; i++) {
+                final ECPoint point = points[i];
+                results[from + i] = point != null && !point.isInfinity()
+                                    && point.getAffineXCoord().toBigInteger().mod(N).equals(rs[i]);
+            }
+        }
+
+        // fills r, s and Q of the i-th entry, or leaves them null if the entry is malformed
+        private void parse(int i, BigInteger[] rs, BigInteger[] ss, ECPoint[] qs) {
+            final byte[] signature = signatures[from + i];
+            final byte[] message = messages[from + i];
+            if (signature == null || message == null || publicKeys[from + i] == null
+                || (signature.length != SIGNATURE_SIZE && signature.length != SIGNATURE_SIZE + 1)) {
+                return;
+            }
+            final BigInteger r = new BigInteger(1, Arrays.copyOfRange(signature, 0, 32));
+            final BigInteger s = new BigInteger(1, Arrays.copyOfRange(signature, 32, 64));
+            if (r.signum() == 0 || r.compareTo(N) >= 0 || s.signum() == 0 || s.compareTo(HALF_N) > 0) {
+                return;
+            }
+            final byte[] publicKey = publicKeys[from + i];
+            if (!isEncodedPoint(publicKey)) {
+                // decodePoint throws other exceptions than IllegalArgumentException for empty or short keys
+                return;
+            }
+            final ECPoint q;
+            try {
+                q = ECDSASignature.curve.getCurve().decodePoint(publicKey);
+            } catch (IllegalArgumentException e) {
+                return;
+            }
+            if (q.isInfinity()) {
+                return;
+            }
+            rs[i] = r;
+            ss[i] = s;
+            qs[i] = q;
+        }
+    }
+
+    // whether the key has the size and the prefix of a compressed or an uncompressed point
+    private static boolean isEncodedPoint(byte[] publicKey) {
+        if (publicKey.length == COMPRESSED_KEY_SIZE) {
+            return publicKey[0] == 0x02 || publicKey[0] == 0x03;
+        }
+        return publicKey.length == UNCOMPRESSED_KEY_SIZE && publicKey[0] == 0x04;
+    }
+
+    /**
+     * Inverts every non-null value modulo the curve order with a single {@code modInverse}.
+     */
+    static BigInteger[] batchInverse(BigInteger[] values) {
+        final BigInteger[] prefix = new BigInteger[values.length];
+        BigInteger acc = BigInteger.ONE;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                acc = acc.multiply(values[i]).mod(N);
+            }
+            prefix[i] = acc;
+        }
+
+        final BigInteger[] inverses = new BigInteger[values.length];
+        BigInteger inv = acc.modInverse(N);
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (values[i] == null) {
+                continue;
+            }
+            final BigInteger before = i == 0 ? BigInteger.ONE : prefix[i - 1];
+            inverses[i] = inv.multiply(before).mod(N);
+            inv = inv.multiply(values[i]).mod(N);
+        }
+        return inverses;
+    }
+}
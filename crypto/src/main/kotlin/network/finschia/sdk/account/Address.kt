@@ -18,11 +18,12 @@ package network.finschia.sdk.account
 import network.finschia.sdk.account.Type.ACCOUNT
 import network.finschia.sdk.account.Type.Companion.DEFAULT_BECH32_HRP_PREFIX
 import network.finschia.sdk.account.Type.Companion.toHrpPrefix
-import network.finschia.sdk.crypto.Bech32Utils
-import org.bitcoinj.core.Bech32
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+import network.finschia.sdk.common.HexCodec
+import network.finschia.sdk.crypto.Bech32Codec
 import org.bouncycastle.jcajce.provider.digest.RIPEMD160
 import org.bouncycastle.jcajce.provider.digest.SHA256
-import org.bouncycastle.util.encoders.Hex
 
 /**
  * Address represents the account's address.
@@ -37,19 +38,33 @@ import org.bouncycastle.util.encoders.Hex
  */
 class Address private constructor(val type: Type, val body: ByteArray) {
 
+    /**
+     * bech32 strings of the address by HRP prefix, replaced as a whole when a prefix is added
+     */
+    @Volatile
+    @Transient
+    private var bech32Strings: Map<String, String> = emptyMap()
+
     /**
      * returns bech32 formatted string of the address
      *
+     * The string is computed once per [hrpPrefix] and memoized, so the [body] must not be modified.
+     *
      * @return <a href="https://github.com/bitcoin/bips/blob/master/bip-0173.mediawiki">bech32</a> formatted string
      */
     @JvmOverloads
     fun toBech32(hrpPrefix: String = DEFAULT_BECH32_HRP_PREFIX): String {
-        if (body.isEmpty()) return ""
+        bech32Strings[hrpPrefix]?.let { return it }
 
-        // using `convertBits`, makes each byte hold 5 bits for `Bech32` class to recognize.
-        val bech32data = Bech32Utils.convertBits(body, 0, body.size, 8, 5, true)
+        val bech32 = encodeBech32(hrpPrefix)
+        bech32Strings = bech32Strings + (hrpPrefix to bech32)
+        return bech32
+    }
+
+    private fun encodeBech32(hrpPrefix: String): String {
+        if (body.isEmpty()) return ""
 
-        return Bech32.encode("${hrpPrefix}${type.toHrpPrefix()}", bech32data)
+        return Bech32Codec.encode(Bech32Codec.Encoding.BECH32, "${hrpPrefix}${type.toHrpPrefix()}", body)
     }
 
     /**
@@ -58,7 +73,7 @@ class Address private constructor(val type: Type, val body: ByteArray) {
      * @return hex string
      */
     fun toHexString(): String {
-        return Hex.toHexString(body)
+        return HexCodec.encode(body)
     }
 
     /**
@@ -86,6 +101,17 @@ class Address private constructor(val type: Type, val body: ByteArray) {
 
     companion object {
         private const val ADDRESS_SIZE_IN_BYTE = 20
+        private const val PARSE_CACHE_SIZE = 10_000L
+
+        /**
+         * decoded bech32 strings, by the string and the HRP prefix
+         *
+         * Only the type and a private copy of the body are kept, since the body of an address can be modified.
+         */
+        private val parseCache: Cache<Pair<String, String>, Parsed> =
+            CacheBuilder.newBuilder().maximumSize(PARSE_CACHE_SIZE).build()
+
+        private class Parsed(val type: Type, val body: ByteArray)
 
         /**
          * An empty address
@@ -124,25 +150,37 @@ class Address private constructor(val type: Type, val body: ByteArray) {
         /**
          * initiates an address from [bech32Address]
          *
+         * The most recently decoded strings are kept in a bounded cache, so parsing the same string again
+         * skips decoding. A new address is returned on each call.
+         *
          * @param bech32Address Bech32 address
-         * @return new address corresponding to the given [bech32Address]
+         * @return address corresponding to the given [bech32Address]
          */
         @JvmStatic
         @JvmOverloads
         @JvmName("of")
         operator fun invoke(bech32Address: String, hrpPrefix: String = DEFAULT_BECH32_HRP_PREFIX): Address {
-            val bech32Data = Bech32.decode(bech32Address)
-
-            require(bech32Data.hrp.startsWith(hrpPrefix)) {
-                "Illegal HRP prefix('${bech32Data.hrp}' does not start with '$hrpPrefix')"
+            val key = bech32Address to hrpPrefix
+            val parsed = parseCache.getIfPresent(key) ?: parse(bech32Address, hrpPrefix).also { parseCache.put(key, it) }
+
+            return invoke(parsed.type, parsed.body.copyOf()).apply {
+                // the encoder only writes lower case strings
+                if (bech32Address.none { it.isUpperCase() }) {
+                    bech32Strings = mapOf(hrpPrefix to bech32Address)
+                }
             }
+        }
 
-            val type = Type(bech32Data.hrp.substring(hrpPrefix.length))
-            // the output of the bech32Data.data is 32 bytes length and each byte holds the 5 bits
-            // using `convertBits` trims bits so the body will finally 20 bytes.
-            val body = Bech32Utils.convertBits(bech32Data.data, 0, bech32Data.data.size, 5, 8, true)
+        private fun parse(bech32Address: String, hrpPrefix: String): Parsed {
+            val body = ByteArray(Bech32Codec.decodedLength(bech32Address))
+            Bech32Codec.decode(Bech32Codec.Encoding.BECH32, bech32Address, body, 0)
+            val hrp = Bech32Codec.hrp(bech32Address)
+
+            require(hrp.startsWith(hrpPrefix)) {
+                "Illegal HRP prefix('$hrp' does not start with '$hrpPrefix')"
+            }
 
-            return invoke(type, body)
+            return Parsed(Type(hrp.substring(hrpPrefix.length)), body)
         }
 
         /**
@@ -15,24 +15,72 @@
  */
 package network.finschia.sdk.account
 
+import network.finschia.sdk.crypto.Bip44WalletUtils.generateChangeKeyPair
 import network.finschia.sdk.crypto.Bip44WalletUtils.generateMnemonic
 import network.finschia.sdk.crypto.Bip44WalletUtils.generatePrivateKey
+import network.finschia.sdk.crypto.ExtendedPublicKey
+import org.web3j.crypto.Bip32ECKeyPair
+import org.web3j.crypto.MnemonicUtils
 import java.security.InvalidAlgorithmParameterException
 import java.security.NoSuchAlgorithmException
 import java.security.NoSuchProviderException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.stream.Collectors
+import java.util.stream.IntStream
 
 /**
  * An implementation of BIP-44 HD Wallet which uses of the key pair.
  *
+ * The BIP-39 seed and the `m/44'/438'/account'/0` key pair of each account are derived once and
+ * cached, so only the last non-hardened step is derived for each index.
+ *
  * @property mnemonic raw private key
  */
 class HDWallet private constructor(val mnemonic: String) {
 
+    private val seed: ByteArray by lazy { MnemonicUtils.generateSeed(mnemonic, null) }
+
+    private val changeKeyPairs = ConcurrentHashMap<Int, Bip32ECKeyPair>()
+
     @JvmOverloads
     fun getKeyWallet(lbmAccountNumber: Int = 0, index: Int = 0): KeyWallet =
-        KeyWallet.loadFromPrivateKey(generatePrivateKey(mnemonic, lbmAccountNumber, index))
+        KeyWallet.loadFromPrivateKey(generatePrivateKey(changeKeyPair(lbmAccountNumber), index))
+
+    /**
+     * Derives the key wallets of [count] consecutive indexes starting from [fromIndex].
+     * The indexes are derived in parallel on the common fork-join pool.
+     *
+     * @return key wallets, in the index order
+     */
+    fun deriveRange(lbmAccountNumber: Int, fromIndex: Int, count: Int): List<KeyWallet> {
+        require(fromIndex >= 0 && count >= 0 && fromIndex.toLong() + count <= HARDENED_INDEX) {
+            "The range [$fromIndex, $fromIndex + $count) must be within the non-hardened indexes"
+        }
+        val changeKeyPair = changeKeyPair(lbmAccountNumber)
+        return IntStream.range(0, count)
+            .parallel()
+            .mapToObj { KeyWallet.loadFromPrivateKey(generatePrivateKey(changeKeyPair, fromIndex + it)) }
+            .collect(Collectors.toList())
+    }
+
+    /**
+     * Returns the watch-only wallet of the account, which derives the same public keys and addresses
+     * without holding any private key.
+     */
+    @JvmOverloads
+    fun getWatchWallet(lbmAccountNumber: Int = 0): HDWatchWallet =
+        HDWatchWallet(ExtendedPublicKey.fromKeyPair(changeKeyPair(lbmAccountNumber)))
+
+    private fun changeKeyPair(lbmAccountNumber: Int): Bip32ECKeyPair =
+        changeKeyPairs.computeIfAbsent(lbmAccountNumber) {
+            generateChangeKeyPair(seed, it).apply {
+                // the public key point is computed lazily, so do it before the key pair is shared
+                publicKeyPoint
+            }
+        }
 
     companion object {
+        private const val HARDENED_INDEX = 1L shl 31
 
         /**
          * Creates a new HDWallet with generating a new mnemonic.
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 LINK Network.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package network.finschia.sdk.account
+
+import network.finschia.sdk.crypto.ExtendedPublicKey
+import java.util.Arrays
+import java.util.stream.IntStream
+import java.util.stream.Stream
+
+/**
+ * A watch-only BIP-44 HD Wallet which holds the extended public key of `m/44'/438'/account'/0`.
+ *
+ * It derives the public keys and the addresses of the account without any private key,
+ * so it can be used on the hosts generating deposit addresses.
+ */
+class HDWatchWallet internal constructor(private val extendedPublicKey: ExtendedPublicKey) {
+
+    /**
+     * returns the public key of the [index]
+     */
+    fun getPubKey(index: Int): PubKey = PubKey(extendedPublicKey.deriveChildPublicKey(index))
+
+    /**
+     * returns the address of the [index]
+     */
+    fun getAddress(index: Int): Address = Address(getPubKey(index))
+
+    /**
+     * returns the public keys of [count] consecutive indexes starting from [fromIndex]
+     *
+     * The keys are derived lazily in chunks which share a single field inversion.
+     *
+     * @return public keys, in the index order
+     */
+    fun pubKeys(fromIndex: Int, count: Int): Stream<PubKey> {
+        require(fromIndex >= 0 && count >= 0 && fromIndex.toLong() + count <= HARDENED_INDEX) {
+            "The range [$fromIndex, $fromIndex + $count) must be within the non-hardened indexes"
+        }
+        // not rounded up with count + CHUNK_SIZE - 1, which overflows for the largest counts
+        val chunks = count / CHUNK_SIZE + if (count % CHUNK_SIZE != 0) 1 else 0
+        return IntStream.range(0, chunks)
+            .mapToObj {
+                val offset = it * CHUNK_SIZE
+                extendedPublicKey.deriveChildPublicKeys(fromIndex + offset, minOf(CHUNK_SIZE, count - offset))
+            }
+            .flatMap { Arrays.stream(it) }
+            .map { PubKey(it) }
+    }
+
+    /**
+     * returns the addresses of [count] consecutive indexes starting from [fromIndex]
+     *
+     * @return addresses, in the index order
+     */
+    fun addresses(fromIndex: Int, count: Int): Stream<Address> = pubKeys(fromIndex, count).map { Address(it) }
+
+    /**
+     * returns the Base58Check encoded extended public key, i.e. `xpub...`
+     */
+    fun toBase58(): String = extendedPublicKey.toBase58()
+
+    companion object {
+        private const val HARDENED_INDEX = 1L shl 31
+        private const val CHUNK_SIZE = 256
+
+        /**
+         * Loads a watch wallet from a Base58Check encoded extended public key
+         *
+         * @return HDWatchWallet
+         */
+        @JvmStatic
+        fun loadFromExtendedPublicKey(xpub: String): HDWatchWallet =
+            HDWatchWallet(ExtendedPublicKey.parse(xpub))
+    }
+}
@@ -15,10 +15,10 @@
  */
 package network.finschia.sdk.account
 
-import network.finschia.sdk.account.PubKey.Companion.createFromPrivateKey
-import network.finschia.sdk.crypto.ECDSASignature
 import network.finschia.sdk.crypto.KeyStore
+import network.finschia.sdk.crypto.KeyVault
 import network.finschia.sdk.crypto.LinkKeys
+import network.finschia.sdk.crypto.Secp256k1Signer
 import java.io.InputStream
 import java.io.OutputStream
 import java.io.Reader
@@ -33,10 +33,15 @@ import java.security.NoSuchProviderException
  * @property privateKey raw private key
  */
 class KeyWallet private constructor(val privateKey: ByteArray) : Wallet {
+    /**
+     * long-lived signer holding the parsed private key and its public point
+     */
+    private val signer = Secp256k1Signer(privateKey)
+
     /**
      * @see Wallet.pubKey
      */
-    override val pubKey: PubKey = createFromPrivateKey(privateKey)
+    override val pubKey: PubKey = PubKey(signer.getPublicKey(true))
 
     /**
      * address derived from the public key
@@ -47,11 +52,12 @@ class KeyWallet private constructor(val privateKey: ByteArray) : Wallet {
     /**
      * @see Wallet.sign
      */
-    override fun sign(message: ByteArray): ByteArray {
-        val signature = ECDSASignature(privateKey)
-        val sig = signature.generateSignature(message)
-        return signature.recoverableSerialize(sig, message)
-    }
+    override fun sign(message: ByteArray): ByteArray = signer.signRecoverable(message)
+
+    /**
+     * @see Wallet.signCompact
+     */
+    override fun signCompact(message: ByteArray): ByteArray = signer.sign(message)
 
     fun exportKeyStore(passphrase: String): String =
         KeyStore.createFromPrivateKey(privateKey, passphrase).export()
@@ -65,6 +71,13 @@ class KeyWallet private constructor(val privateKey: ByteArray) : Wallet {
         KeyStore.createFromPrivateKey(privateKey, passphrase).export(keyStoreData)
     }
 
+    /**
+     * Appends the private key to the [vault], under the address of the wallet
+     */
+    fun exportKeyVault(vault: KeyVault) {
+        vault.put(address.body, privateKey)
+    }
+
     companion object {
         /**
          * Creates a new KeyWallet with generating a new key pair.
@@ -94,5 +107,21 @@ class KeyWallet private constructor(val privateKey: ByteArray) : Wallet {
         @JvmStatic
         fun loadFromKeyStore(keyStoreData: InputStream, passphrase: String): KeyWallet =
             KeyWallet(KeyStore.load(keyStoreData).getPrivateKey(passphrase))
+
+        /**
+         * Loads the key wallet of the [address] from the [vault]
+         *
+         * @return KeyWallet
+         * @throws IllegalArgumentException if the vault has no key of the [address] or its key belongs to another one
+         */
+        @JvmStatic
+        fun loadFromKeyVault(vault: KeyVault, address: Address): KeyWallet {
+            val keyWallet = KeyWallet(vault.getPrivateKey(address.body))
+            // records are not bound to their addresses, so a swapped record must not load another key
+            require(keyWallet.address.body.contentEquals(address.body)) {
+                "The key in the vault does not belong to $address"
+            }
+            return keyWallet
+        }
     }
 }
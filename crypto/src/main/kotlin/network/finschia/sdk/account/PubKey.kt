@@ -17,12 +17,12 @@ package network.finschia.sdk.account
 
 import network.finschia.sdk.account.Type.Companion.DEFAULT_BECH32_HRP_PREFIX
 import network.finschia.sdk.account.Type.Companion.toHrpPrefix
+import network.finschia.sdk.common.HexCodec
 import network.finschia.sdk.common.TypedValue
 import network.finschia.sdk.crypto.Amino
-import network.finschia.sdk.crypto.Bech32Utils
+import network.finschia.sdk.crypto.Bech32Codec
 import network.finschia.sdk.crypto.LinkKeys
-import org.bitcoinj.core.Bech32
-import org.bouncycastle.util.encoders.Hex
+import network.finschia.sdk.crypto.Secp256k1Verifier
 
 /**
  * PubKey represents the account's public key.
@@ -68,26 +68,22 @@ class PubKey {
      */
     @JvmOverloads
     constructor(bech32pubKey: String, hrpPrefix: String = DEFAULT_BECH32_HRP_PREFIX) {
-        val bech32Data = Bech32.decode(bech32pubKey)
+        // the bech32 data is the amino encoded body that is 38 bytes.
+        val aminoEncodedBody = ByteArray(Bech32Codec.decodedLength(bech32pubKey))
+        Bech32Codec.decode(Bech32Codec.Encoding.BECH32, bech32pubKey, aminoEncodedBody, 0)
+        val hrp = Bech32Codec.hrp(bech32pubKey)
 
-        require(bech32Data.hrp.startsWith(hrpPrefix)) {
-            "Illegal HRP prefix('${bech32Data.hrp}' does not start with '$hrpPrefix')"
+        require(hrp.startsWith(hrpPrefix)) {
+            "Illegal HRP prefix('$hrp' does not start with '$hrpPrefix')"
         }
 
-        require(bech32Data.hrp.endsWith(BECH32_HRP_SUFFIX)) {
-            "Illegal HRP suffix('${bech32Data.hrp}' does not end with '$BECH32_HRP_SUFFIX')"
+        require(hrp.endsWith(BECH32_HRP_SUFFIX)) {
+            "Illegal HRP suffix('$hrp' does not end with '$BECH32_HRP_SUFFIX')"
         }
 
-        type =
-            Type(bech32Data.hrp.substring(hrpPrefix.length, bech32Data.hrp.length - BECH32_HRP_SUFFIX.length))
+        type = Type(hrp.substring(hrpPrefix.length, hrp.length - BECH32_HRP_SUFFIX.length))
 
-        // the output of the bech32Data.data is 64 bytes length and each byte holds the 5 bits
-        // using `convertBits` trims bits so you can get amino encoded body that is 39 bytes.
-        // remove amino prefix that is 5 bytes and a redundant last 1 byte that added during bech32 process
-        // and the body will finally 33 bytes.
-        val aminoEncodedBody = Bech32Utils.convertBits(
-            bech32Data.data, 0, bech32Data.data.size, 5, 8, true
-        )
+        // remove amino prefix that is 5 bytes and the body will finally 33 bytes.
         body = Amino.removeAminoPrefix(aminoEncodedBody, PUBLIC_KEY_SIZE_IN_BYTE)
         checkBodySize()
     }
@@ -104,30 +100,52 @@ class PubKey {
      */
     fun asTypedValue() = TypedValue(encodingType, body)
 
+    /**
+     * bech32 strings of the public key by HRP prefix, replaced as a whole when a prefix is added
+     */
+    @Volatile
+    @Transient
+    private var bech32Strings: Map<String, String> = emptyMap()
+
     /**
      * returns bech32 formatted string of the public key
      *
+     * The string is computed once per [hrpPrefix] and memoized, so the [body] must not be modified.
+     *
      * @return <a href="https://github.com/bitcoin/bips/blob/master/bip-0173.mediawiki">bech32</a> formatted string
      */
     @JvmOverloads
     fun toBech32(hrpPrefix: String = DEFAULT_BECH32_HRP_PREFIX): String {
-        val encodedBody: ByteArray = Amino.addAminoPrefix(encodingType, body)
+        bech32Strings[hrpPrefix]?.let { return it }
 
-        // using `convertBits`, makes each byte hold 5 bits for `Bech32` class to recognize.
-        val bech32data = Bech32Utils.convertBits(
-            encodedBody, 0, encodedBody.size, 8, 5, true
-        )
+        val bech32 = encodeBech32(hrpPrefix)
+        bech32Strings = bech32Strings + (hrpPrefix to bech32)
+        return bech32
+    }
+
+    private fun encodeBech32(hrpPrefix: String): String {
+        val encodedBody: ByteArray = Amino.addAminoPrefix(encodingType, body)
 
         val hrp = "${hrpPrefix}${type.toHrpPrefix()}$BECH32_HRP_SUFFIX"
-        return Bech32.encode(hrp, bech32data)
+        return Bech32Codec.encode(Bech32Codec.Encoding.BECH32, hrp, encodedBody)
     }
 
+    /**
+     * verifies the [signature] of the [message] with the public key
+     *
+     * @param message hash of the signed data, the same input given to [Wallet.sign]
+     * @param signature 32 bytes for R + 32 bytes for S, optionally followed by the recovery id
+     * @return true if the signature is valid
+     */
+    fun verify(message: ByteArray, signature: ByteArray): Boolean =
+        Secp256k1Verifier.verify(body, message, signature)
+
     /**
      * returns hex string of the public key
      *
      * @return hex string
      */
-    fun toHexString(): String = Hex.toHexString(body)
+    fun toHexString(): String = HexCodec.encode(body)
 
     /**
      * stringifies the public key
@@ -152,7 +170,7 @@ class PubKey {
 
     companion object {
         private const val BECH32_HRP_SUFFIX = "pub"
-        private const val PUB_KEY_TYPE_SECP256K1 = "tendermint/PubKeySecp256k1"
+        private const val PUB_KEY_TYPE_SECP256K1 = Amino.PUB_KEY_SECP256K1
         internal const val PUBLIC_KEY_SIZE_IN_BYTE = 33
 
         /**
@@ -164,5 +182,21 @@ class PubKey {
         @JvmStatic
         fun createFromPrivateKey(privateKey: ByteArray): PubKey =
             PubKey(LinkKeys.getPublicKey(privateKey, true))
+
+        /**
+         * verifies the signatures of the messages in a batch
+         *
+         * @param pubKeys public keys of the signers
+         * @param messages hashes of the signed data
+         * @param signatures signatures to verify
+         * @return whether each signature is valid, in the input order
+         */
+        @JvmStatic
+        fun verifyBatch(pubKeys: List<PubKey>, messages: List<ByteArray>, signatures: List<ByteArray>): BooleanArray =
+            Secp256k1Verifier.verifyBatch(
+                pubKeys.map { it.body }.toTypedArray(),
+                messages.toTypedArray(),
+                signatures.toTypedArray()
+            )
     }
 }
@@ -38,4 +38,12 @@ interface Wallet {
      * @return signature bytes
      */
     fun sign(message: ByteArray): ByteArray
+
+    /**
+     * Signs the input message without the trailing recovery id
+     *
+     * @param message to sign
+     * @return 64 bytes signature (32 bytes for R + 32 bytes for S)
+     */
+    fun signCompact(message: ByteArray): ByteArray = sign(message).copyOfRange(0, 64)
 }
@@ -15,8 +15,6 @@
  */
 package network.finschia.sdk.common
 
-import org.bouncycastle.util.encoders.Hex
-
 /**
  * Hash represents the hash value such as tx hash, block hash
  */
@@ -40,9 +38,9 @@ class Hash {
     }
 
     /**
-     * initiates with a hash string
+     * initiates with a hash string, skipping spaces, tabs and line breaks in it
      */
-    constructor(value: String) : this(Hex.decode(value))
+    constructor(value: String) : this(HexCodec.decode(value.filterNot { it == ' ' || it == '\t' || it == '\n' || it == '\r' }))
 
     fun isEmpty(): Boolean = value.isEmpty()
 
@@ -54,7 +52,7 @@ class Hash {
     override fun toString(): String {
         // From the cosmos's manner, hashes are represented as upper-cased hex-string.
         // The SDK follows it.
-        return Hex.toHexString(value).uppercase()
+        return HexCodec.encode(value, upperCase = true)
     }
 
     override fun equals(other: Any?): Boolean {
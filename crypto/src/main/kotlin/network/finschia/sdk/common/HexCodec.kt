@@ -0,0 +1,123 @@
+package network.finschia.sdk.common
+
+/**
+ * Thrown when a hex string has an odd length or a character which is not a hex digit
+ *
+ * @property position index of the invalid character, or the length of the string if its length is odd
+ */
+class InvalidHexException(message: String, val position: Int) : IllegalArgumentException(message)
+
+/**
+ * HexCodec encodes bytes to hex strings and decodes them back with lookup tables,
+ * optionally into buffers given by the caller.
+ */
+object HexCodec {
+    // the two characters of every byte value, at 2 * value
+    private val LOWER_DIGITS = digitPairs("0123456789abcdef")
+    private val UPPER_DIGITS = digitPairs("0123456789ABCDEF")
+
+    // the value of every ASCII character, -1 if it is not a hex digit
+    private val VALUES = ByteArray(128) { -1 }.also { values ->
+        for (i in 0 until 16) {
+            values["0123456789abcdef"[i].code] = i.toByte()
+            values["0123456789ABCDEF"[i].code] = i.toByte()
+        }
+    }
+
+    private fun digitPairs(digits: String) = CharArray(512) {
+        val value = it / 2
+        digits[if (it % 2 == 0) value ushr 4 else value and 0x0f]
+    }
+
+    /**
+     * returns hex string of [data]
+     *
+     * @param upperCase whether to use upper-cased digits
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun encode(data: ByteArray, upperCase: Boolean = false): String {
+        val out = CharArray(data.size * 2)
+        encode(data, 0, data.size, out, 0, upperCase)
+        return String(out)
+    }
+
+    /**
+     * writes hex digits of [length] bytes of [data] from [offset] into [out] from [outOffset]
+     *
+     * @param upperCase whether to use upper-cased digits
+     * @return the number of characters written, which is 2 * [length]
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun encode(
+        data: ByteArray,
+        offset: Int,
+        length: Int,
+        out: CharArray,
+        outOffset: Int = 0,
+        upperCase: Boolean = false,
+    ): Int {
+        require(offset >= 0 && length >= 0 && offset + length <= data.size) {
+            "Invalid range of data: offset=$offset, length=$length, size=${data.size}"
+        }
+        require(outOffset >= 0 && outOffset + length * 2 <= out.size) {
+            "The output buffer is too small: offset=$outOffset, required=${length * 2}, size=${out.size}"
+        }
+        val digits = if (upperCase) UPPER_DIGITS else LOWER_DIGITS
+        var j = outOffset
+        for (i in offset until offset + length) {
+            val index = (data[i].toInt() and 0xff) shl 1
+            out[j++] = digits[index]
+            out[j++] = digits[index + 1]
+        }
+        return length * 2
+    }
+
+    /**
+     * returns bytes of [hex], whose digits may be in any case
+     *
+     * @throws InvalidHexException if the length of [hex] is odd or it has a character which is not a hex digit
+     */
+    @JvmStatic
+    fun decode(hex: CharSequence): ByteArray {
+        checkLength(hex)
+        val out = ByteArray(hex.length / 2)
+        decode(hex, out, 0)
+        return out
+    }
+
+    /**
+     * writes bytes of [hex] into [out] from [outOffset]
+     *
+     * @return the number of bytes written, which is the half of the length of [hex]
+     * @throws InvalidHexException if the length of [hex] is odd or it has a character which is not a hex digit
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun decode(hex: CharSequence, out: ByteArray, outOffset: Int = 0): Int {
+        checkLength(hex)
+        val length = hex.length / 2
+        require(outOffset >= 0 && outOffset + length <= out.size) {
+            "The output buffer is too small: offset=$outOffset, required=$length, size=${out.size}"
+        }
+        var j = outOffset
+        for (i in 0 until hex.length step 2) {
+            out[j++] = ((digitValue(hex, i) shl 4) or digitValue(hex, i + 1)).toByte()
+        }
+        return length
+    }
+
+    private fun checkLength(hex: CharSequence) {
+        if (hex.length % 2 != 0) {
+            throw InvalidHexException("hex string length must be a multiple of 2: ${hex.length}", hex.length)
+        }
+    }
+
+    private fun digitValue(hex: CharSequence, index: Int): Int {
+        val c = hex[index]
+        val value = if (c.code < VALUES.size) VALUES[c.code].toInt() else -1
+        if (value < 0) throw InvalidHexException("invalid hex character '$c' at $index", index)
+        return value
+    }
+}
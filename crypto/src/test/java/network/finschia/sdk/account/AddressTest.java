@@ -138,4 +138,32 @@ class AddressTest {
         assertEquals("", emptyAddress.toBech32());
         assertEquals("", emptyAddress.toHexString());
     }
+
+    @Test
+    void testToBech32Memoized() {
+        final Address address = Address.of(Hex.decode("0123456789abcdef0123456789abcdef12345678"));
+
+        final String bech32 = address.toBech32();
+        assertThat(address.toBech32()).isSameInstanceAs(bech32);
+        assertThat(address.toBech32("tlink")).startsWith("tlink1");
+        assertThat(address.toBech32()).isSameInstanceAs(bech32);
+        assertEquals(bech32, address.toString());
+    }
+
+    @Test
+    void testParseCache() {
+        final String bech32 = "link18w9fvd5alkegkm9q8dzhym3kmeshugvydpdyc8";
+        final Address address = Address.of(bech32);
+
+        assertThat(Address.of(bech32)).isNotSameInstanceAs(address);
+        assertThat(Address.of(bech32)).isEqualTo(address);
+        assertThat(address.toBech32()).isSameInstanceAs(bech32);
+        assertThat(Address.of(bech32.toUpperCase())).isEqualTo(address);
+        assertThrows(IllegalArgumentException.class, () -> Address.of(bech32, "tlink"));
+
+        // modifying a parsed address does not change the later ones
+        address.getBody()[0] ^= 1;
+        assertThat(Address.of(bech32)).isNotEqualTo(address);
+        assertEquals(bech32, Address.of(bech32).toBech32());
+    }
 }
@@ -10,6 +10,7 @@ import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 
 import org.bouncycastle.crypto.params.ECDomainParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
@@ -20,6 +21,8 @@ import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import network.finschia.sdk.crypto.Bip44WalletUtils;
+
 public class HDWalletTest {
     private static final String MNEMONIC =
             "draft hope about adapt later town private cruise taxi cable canal cliff chapter base cousin depend begin differ discover foster hood pretty music liberty";
@@ -54,6 +57,29 @@ public class HDWalletTest {
         assertNotEquals(wallet1.getAddress(), wallet3.getAddress());
     }
 
+    @Test
+    void testDeriveRange() {
+        final HDWallet hdWallet = HDWallet.loadFromMnemonic(MNEMONIC);
+        final List<KeyWallet> wallets = hdWallet.deriveRange(1, 3, 20);
+
+        assertEquals(20, wallets.size());
+        for (int i = 0; i < wallets.size(); i++) {
+            assertArrayEquals(Bip44WalletUtils.generatePrivateKey(MNEMONIC, 1, 3 + i),
+                              wallets.get(i).getPrivateKey());
+            assertEquals(hdWallet.getKeyWallet(1, 3 + i).getAddress(), wallets.get(i).getAddress());
+        }
+        assertEquals(Address.of(ADDRESS), hdWallet.deriveRange(0, 0, 1).get(0).getAddress());
+    }
+
+    @Test
+    void testDeriveRangeOutOfRange() {
+        final HDWallet hdWallet = HDWallet.loadFromMnemonic(MNEMONIC);
+
+        assertEquals(0, hdWallet.deriveRange(0, 5, 0).size());
+        assertThrows(IllegalArgumentException.class, () -> hdWallet.deriveRange(0, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> hdWallet.deriveRange(0, Integer.MAX_VALUE, 2));
+    }
+
     @Test
     void testCreate() throws Exception {
         final HDWallet hdWallet1 = HDWallet.create();
@@ -0,0 +1,59 @@
+package network.finschia.sdk.account;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class HDWatchWalletTest {
+    private static final String MNEMONIC =
+            "draft hope about adapt later town private cruise taxi cable canal cliff chapter base cousin depend begin differ discover foster hood pretty music liberty";
+    private static final String ADDRESS = "link12mgtlqzq8htt4d6mmly52sm8d230cfwtqf0se6";
+
+    @Test
+    void testGetAddress() {
+        final HDWatchWallet watchWallet = HDWallet.loadFromMnemonic(MNEMONIC).getWatchWallet();
+
+        assertEquals(Address.of(ADDRESS), watchWallet.getAddress(0));
+    }
+
+    @Test
+    void testSameAsHDWallet() {
+        final HDWallet hdWallet = HDWallet.loadFromMnemonic(MNEMONIC);
+        final HDWatchWallet watchWallet = hdWallet.getWatchWallet(1);
+
+        final List<PubKey> pubKeys = watchWallet.pubKeys(250, 10).collect(Collectors.toList());
+        final List<Address> addresses = watchWallet.addresses(250, 10).collect(Collectors.toList());
+        assertEquals(10, pubKeys.size());
+        for (int i = 0; i < pubKeys.size(); i++) {
+            final KeyWallet wallet = hdWallet.getKeyWallet(1, 250 + i);
+            assertEquals(wallet.getPubKey(), pubKeys.get(i));
+            assertEquals(wallet.getAddress(), addresses.get(i));
+            assertEquals(wallet.getAddress(), watchWallet.getAddress(250 + i));
+        }
+    }
+
+    @Test
+    void testLoadFromExtendedPublicKey() {
+        final HDWatchWallet watchWallet = HDWallet.loadFromMnemonic(MNEMONIC).getWatchWallet();
+        final HDWatchWallet loaded = HDWatchWallet.loadFromExtendedPublicKey(watchWallet.toBase58());
+
+        assertEquals(watchWallet.toBase58(), loaded.toBase58());
+        assertEquals(Address.of(ADDRESS), loaded.getAddress(0));
+    }
+
+    @Test
+    void testOutOfRange() {
+        final HDWatchWallet watchWallet = HDWallet.loadFromMnemonic(MNEMONIC).getWatchWallet();
+
+        assertEquals(0, watchWallet.pubKeys(0, 0).count());
+        // the largest range is derived lazily
+        assertEquals(watchWallet.getPubKey(0), watchWallet.pubKeys(0, Integer.MAX_VALUE).findFirst().get());
+        assertEquals(watchWallet.getPubKey(1), watchWallet.pubKeys(1, Integer.MAX_VALUE).findFirst().get());
+        assertThrows(IllegalArgumentException.class, () -> watchWallet.pubKeys(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> watchWallet.getPubKey(-1));
+    }
+}
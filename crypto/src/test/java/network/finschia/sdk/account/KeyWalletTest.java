@@ -15,6 +15,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Objects;
@@ -28,11 +29,13 @@ import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.internal.matchers.apachecommons.ReflectionEquals;
 
 import com.google.common.io.CharStreams;
 
 import kotlin.text.Charsets;
+import network.finschia.sdk.crypto.KeyVault;
 
 class KeyWalletTest {
 
@@ -42,6 +45,8 @@ class KeyWalletTest {
     private static final String ADDRESS = "link12mgtlqzq8htt4d6mmly52sm8d230cfwtqf0se6";
     private static final String TEST_KEY_STORE_FILE = "keystores/test_keystore.txt";
     private static final String TEST_KEY_STORE_PASSPHRASE = "1234567890";
+    // the cached signer has no equals, and it is derived from the private key which is compared
+    private static final String SIGNER = "signer";
     private static Reader keyStoreData;
 
     @BeforeEach
@@ -89,7 +94,7 @@ class KeyWalletTest {
                         new StringReader(keyWallet.exportKeyStore(TEST_KEY_STORE_PASSPHRASE)),
                         TEST_KEY_STORE_PASSPHRASE);
 
-        assertTrue(new ReflectionEquals(keyWallet).matches(keyWalletUsingExportedData));
+        assertTrue(new ReflectionEquals(keyWallet, SIGNER).matches(keyWalletUsingExportedData));
     }
 
     @Test
@@ -103,7 +108,7 @@ class KeyWalletTest {
                             new StringReader(out.toString()),
                             TEST_KEY_STORE_PASSPHRASE);
 
-            assertTrue(new ReflectionEquals(keyWallet).matches(keyWalletUsingExportedData));
+            assertTrue(new ReflectionEquals(keyWallet, SIGNER).matches(keyWalletUsingExportedData));
         }
     }
 
@@ -116,7 +121,35 @@ class KeyWalletTest {
             final KeyWallet keyWalletUsingExportedData = KeyWallet.loadFromKeyStore(
                     new ByteArrayInputStream(out.toByteArray()), TEST_KEY_STORE_PASSPHRASE);
 
-            assertTrue(new ReflectionEquals(keyWallet).matches(keyWalletUsingExportedData));
+            assertTrue(new ReflectionEquals(keyWallet, SIGNER).matches(keyWalletUsingExportedData));
+        }
+    }
+
+    @Test
+    public void testExportKeyVault(@TempDir Path directory) throws IOException {
+        final KeyWallet keyWallet = KeyWallet.loadFromPrivateKey(Base64.getDecoder().decode(PRIVATE_KEY));
+        final Path path = directory.resolve("vault");
+        try (KeyVault vault = KeyVault.open(path, TEST_KEY_STORE_PASSPHRASE)) {
+            keyWallet.exportKeyVault(vault);
+        }
+
+        try (KeyVault vault = KeyVault.open(path, TEST_KEY_STORE_PASSPHRASE)) {
+            final KeyWallet keyWalletUsingVault = KeyWallet.loadFromKeyVault(vault, Address.of(ADDRESS));
+
+            assertTrue(new ReflectionEquals(keyWallet, SIGNER).matches(keyWalletUsingVault));
+        }
+    }
+
+    @Test
+    public void testLoadFromKeyVaultOfAnotherKey(@TempDir Path directory) throws Exception {
+        final KeyWallet keyWallet = KeyWallet.loadFromPrivateKey(Base64.getDecoder().decode(PRIVATE_KEY));
+        final KeyWallet anotherWallet = KeyWallet.create();
+        try (KeyVault vault = KeyVault.open(directory.resolve("vault"), TEST_KEY_STORE_PASSPHRASE)) {
+            // a record of the address holding the key of another address
+            vault.put(keyWallet.getAddress().getBody(), anotherWallet.getPrivateKey());
+
+            assertThrows(IllegalArgumentException.class,
+                         () -> KeyWallet.loadFromKeyVault(vault, keyWallet.getAddress()));
         }
     }
 
@@ -137,6 +170,17 @@ class KeyWalletTest {
         assertEquals(expected, Base64.getEncoder().encodeToString(sign));
     }
 
+    @Test
+    void testSignCompactMessage() {
+        final String message = "G1eQ4dSk3HGi5Jicd9do/y0EzX+M0zTGSP0ajGe9/9Q=";
+        final String expected =
+                "CfNbzAFDD6WE0jZG+YOXEpSH6SqptfKL+FVzXffJQw1T7xMYj7A+uCXZDCrJZzbX3pgSQimJyyX5D0wCGf1QJg==";
+
+        final Wallet wallet = KeyWallet.loadFromPrivateKey(Base64.getDecoder().decode(PRIVATE_KEY));
+        final byte[] sign = wallet.signCompact(Base64.getDecoder().decode(message));
+        assertEquals(expected, Base64.getEncoder().encodeToString(sign));
+    }
+
     @Test
     void testSignMessageNullException() throws Exception {
         final Wallet wallet = KeyWallet.create();
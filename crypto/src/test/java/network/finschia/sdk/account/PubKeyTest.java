@@ -1,15 +1,22 @@
 package network.finschia.sdk.account;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.jupiter.api.Test;
 
 class PubKeyTest {
+    private static final String MNEMONIC =
+            "draft hope about adapt later town private cruise taxi cable canal cliff chapter base cousin depend begin differ discover foster hood pretty music liberty";
 
     @Test
     void testInitiate() {
@@ -100,4 +107,31 @@ class PubKeyTest {
         assertEquals(pubKeyByBech32, pubKeyByBody);
         assertEquals(pubKeyByBody.hashCode(), pubKeyByBech32.hashCode());
     }
+
+    @Test
+    void testVerify() {
+        final KeyWallet wallet = HDWallet.loadFromMnemonic(MNEMONIC).getKeyWallet();
+        final KeyWallet other = HDWallet.loadFromMnemonic(MNEMONIC).getKeyWallet(0, 1);
+        final byte[] message = Hex.decode("1b5790e1d4a4dc71a2e4989c77d768ff2d04cd7f8cd334c648fd1a8c67bdffd4");
+
+        assertTrue(wallet.getPubKey().verify(message, wallet.signCompact(message)));
+        assertFalse(other.getPubKey().verify(message, wallet.signCompact(message)));
+
+        final boolean[] results = PubKey.verifyBatch(
+                Arrays.asList(wallet.getPubKey(), other.getPubKey(), wallet.getPubKey()),
+                Arrays.asList(message, message, message),
+                Arrays.asList(wallet.sign(message), other.sign(message), other.sign(message)));
+        assertArrayEquals(new boolean[] { true, true, false }, results);
+    }
+
+    @Test
+    void testToBech32Memoized() {
+        final PubKey pubKey = new PubKey("linkpub1addwnpepqfhvrlqk2meckst945el0gsgz9ukmz3fjhv27fa8kf6tj65pf03f7wyzhwk");
+
+        final String bech32 = pubKey.toBech32();
+        assertEquals("linkpub1addwnpepqfhvrlqk2meckst945el0gsgz9ukmz3fjhv27fa8kf6tj65pf03f7wyzhwk", bech32);
+        assertSame(bech32, pubKey.toBech32());
+        assertEquals("tlinkpub", pubKey.toBech32("tlink").substring(0, 8));
+        assertSame(bech32, pubKey.toString());
+    }
 }
@@ -0,0 +1,88 @@
+package network.finschia.sdk.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.security.SecureRandom;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+class HexCodecTest {
+    private final SecureRandom random = new SecureRandom();
+
+    @Test
+    void testEncode() {
+        assertEquals("", HexCodec.encode(new byte[0]));
+        assertEquals("00017f80ff", HexCodec.encode(new byte[] { 0, 1, 0x7f, (byte) 0x80, (byte) 0xff }));
+        assertEquals("ABCDEF", HexCodec.encode(new byte[] { (byte) 0xab, (byte) 0xcd, (byte) 0xef }, true));
+
+        final byte[] data = new byte[256];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        assertEquals(Hex.toHexString(data), HexCodec.encode(data));
+        assertEquals(Hex.toHexString(data).toUpperCase(), HexCodec.encode(data, true));
+    }
+
+    @Test
+    void testEncodeIntoBuffer() {
+        final char[] out = "--------".toCharArray();
+        assertEquals(4, HexCodec.encode(new byte[] { 1, 2, 3, (byte) 0xab }, 2, 2, out, 3));
+        assertEquals("---03ab-", new String(out));
+
+        assertThrows(IllegalArgumentException.class, () -> HexCodec.encode(new byte[4], 0, 4, out, 1));
+        assertThrows(IllegalArgumentException.class, () -> HexCodec.encode(new byte[4], 3, 2, out, 0));
+    }
+
+    @Test
+    void testDecode() {
+        assertArrayEquals(new byte[0], HexCodec.decode(""));
+        assertArrayEquals(new byte[] { 0, 1, 0x7f, (byte) 0x80, (byte) 0xff }, HexCodec.decode("00017f80ff"));
+        assertArrayEquals(new byte[] { (byte) 0xab, (byte) 0xcd, (byte) 0xef }, HexCodec.decode("aBCdeF"));
+
+        for (int i = 0; i < 100; i++) {
+            final byte[] data = new byte[random.nextInt(64)];
+            random.nextBytes(data);
+            assertArrayEquals(data, HexCodec.decode(HexCodec.encode(data, random.nextBoolean())));
+        }
+    }
+
+    @Test
+    void testDecodeIntoBuffer() {
+        final byte[] out = new byte[4];
+        assertEquals(2, HexCodec.decode(new StringBuilder("0aff"), out, 1));
+        assertArrayEquals(new byte[] { 0, 0x0a, (byte) 0xff, 0 }, out);
+
+        assertThrows(IllegalArgumentException.class, () -> HexCodec.decode("0aff0aff", out, 1));
+    }
+
+    @Test
+    void testInvalidHex() {
+        assertInvalid("abc", 3);
+        assertInvalid("a!", 1);
+        assertInvalid(" a", 0);
+        assertInvalid("0g", 1);
+        // characters between the upper-cased and the lower-cased digits
+        assertInvalid("a[", 1);
+        assertInvalid("_a", 0);
+        assertInvalid("0\u00e9", 1);
+        assertInvalid("ab\uff10a", 2);
+
+        final InvalidHexException e = assertThrows(InvalidHexException.class, () -> HexCodec.decode("12z4"));
+        assertEquals("invalid hex character 'z' at 2", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> HexCodec.decode("0g"));
+    }
+
+    @Test
+    void testHashSkipsWhitespace() {
+        assertEquals(new Hash(new byte[] { (byte) 0xab, (byte) 0xcd, 0x01 }), new Hash(" ABcd\t01\r\n"));
+        assertThrows(IllegalArgumentException.class, () -> new Hash("AB_CD"));
+    }
+
+    private static void assertInvalid(String hex, int position) {
+        final InvalidHexException e = assertThrows(InvalidHexException.class, () -> HexCodec.decode(hex));
+        assertEquals(position, e.getPosition());
+    }
+}
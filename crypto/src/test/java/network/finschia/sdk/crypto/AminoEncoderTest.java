@@ -0,0 +1,112 @@
+package network.finschia.sdk.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.primitives.Bytes;
+
+class AminoEncoderTest {
+
+    @Test
+    void testEncodeUvarint() {
+        assertArrayEquals(Hex.decode("00"), AminoEncoder.encodeUvarint(0));
+        assertArrayEquals(Hex.decode("01"), AminoEncoder.encodeUvarint(1));
+        assertArrayEquals(Hex.decode("7f"), AminoEncoder.encodeUvarint(127));
+        assertArrayEquals(Hex.decode("8001"), AminoEncoder.encodeUvarint(128));
+        assertArrayEquals(Hex.decode("ac02"), AminoEncoder.encodeUvarint(300));
+        assertArrayEquals(Hex.decode("ffffffff07"), AminoEncoder.encodeUvarint(Integer.MAX_VALUE));
+        assertArrayEquals(Hex.decode("ffffffffffffffff7f"), AminoEncoder.encodeUvarint(Long.MAX_VALUE));
+        assertArrayEquals(Hex.decode("ffffffffffffffffff01"), AminoEncoder.encodeUvarint(-1));
+    }
+
+    @Test
+    void testUvarintSize() {
+        for (long value : new long[] { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE, -1 }) {
+            assertEquals(AminoEncoder.encodeUvarint(value).length, AminoEncoder.uvarintSize(value));
+        }
+    }
+
+    @Test
+    void testWriteFields() {
+        final byte[] encoded = new AminoEncoder(0)
+                .writeUvarintField(1, 2)
+                .writeByteSliceField(2, new byte[] { 1, 2, 3 })
+                .writeStringField(3, "abc")
+                .toByteArray();
+
+        assertArrayEquals(Hex.decode("0802" + "1203010203" + "1a03616263"), encoded);
+    }
+
+    @Test
+    void testWriteInvalidFieldKey() {
+        final AminoEncoder encoder = new AminoEncoder();
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.writeFieldKey(0, AminoEncoder.WIRE_TYPE_VARINT));
+        assertThrows(IllegalArgumentException.class,
+                     () -> encoder.writeFieldKey(1 << 29, AminoEncoder.WIRE_TYPE_VARINT));
+    }
+
+    @Test
+    void testWriteTypePrefix() {
+        final byte[] body = Hex.decode("026ec1fc1656f38b4165ad33f7a20811796d8a2995d8af27a7b274b96a814be29f");
+
+        final byte[] encoded = new AminoEncoder()
+                .writeTypePrefix(Amino.PUB_KEY_SECP256K1)
+                .writeByteSlice(body)
+                .toByteArray();
+
+        assertArrayEquals(Amino.addAminoPrefix(Amino.PUB_KEY_SECP256K1, body), encoded);
+    }
+
+    @Test
+    void testNestedField() {
+        final AminoEncoder encoder = new AminoEncoder();
+        final int outer = encoder.beginField(1);
+        final int inner = encoder.beginField(2);
+        encoder.writeUvarintField(1, 1);
+        encoder.endField(inner);
+        encoder.endField(outer);
+
+        assertArrayEquals(Hex.decode("0a04" + "1202" + "0801"), encoder.toByteArray());
+    }
+
+    @Test
+    void testNestedFieldLongerThanOneByteLength() {
+        final byte[] content = new byte[300];
+        Arrays.fill(content, (byte) 7);
+
+        final AminoEncoder encoder = new AminoEncoder(4);
+        final int mark = encoder.beginField(2);
+        encoder.writeBytes(content);
+        encoder.endField(mark);
+        encoder.writeByte(0xff);
+
+        assertArrayEquals(Bytes.concat(Hex.decode("12ac02"), content, Hex.decode("ff")), encoder.toByteArray());
+        assertArrayEquals(new AminoEncoder().writeByteSliceField(2, content).writeByte(0xff).toByteArray(),
+                          encoder.toByteArray());
+    }
+
+    @Test
+    void testReset() {
+        final AminoEncoder encoder = new AminoEncoder();
+        encoder.writeBytes(new byte[100]);
+
+        encoder.reset().writeUvarint(300);
+
+        assertEquals(2, encoder.size());
+        assertArrayEquals(Hex.decode("ac02"), encoder.toByteArray());
+    }
+
+    @Test
+    void testEndInvalidField() {
+        final AminoEncoder encoder = new AminoEncoder();
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.endField(0));
+    }
+}
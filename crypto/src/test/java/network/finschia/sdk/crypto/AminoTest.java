@@ -2,8 +2,11 @@ package network.finschia.sdk.crypto;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.bouncycastle.util.encoders.Hex;
@@ -80,4 +83,51 @@ public class AminoTest {
         assertThrows(IllegalArgumentException.class,
                      () -> Amino.getNonZeroValueIndex(TEST_BYTE_ARRAY, 0, TEST_BYTE_ARRAY.length + 1));
     }
+
+    @Test
+    public void testRegisteredPrefixes() {
+        assertArrayEquals(Hex.decode("eb5ae987"), Amino.register(Amino.PUB_KEY_SECP256K1).getPrefix());
+        assertArrayEquals(Hex.decode("e1b0f79b"), Amino.register(Amino.PRIV_KEY_SECP256K1).getPrefix());
+        assertArrayEquals(Hex.decode("1624de64"), Amino.register(Amino.PUB_KEY_ED25519).getPrefix());
+        assertArrayEquals(Hex.decode("a3288910"), Amino.register(Amino.PRIV_KEY_ED25519).getPrefix());
+        assertArrayEquals(Hex.decode("22c1f7e2"), Amino.register(Amino.PUB_KEY_MULTISIG_THRESHOLD).getPrefix());
+        assertEquals(3, Amino.register(Amino.PUB_KEY_MULTISIG_THRESHOLD).getDisambiguation().length);
+    }
+
+    @Test
+    public void testUnregisteredNameIsNotStored() {
+        final String name = "test/UnregisteredPubKey";
+        final byte[] encoded = Amino.addAminoPrefix(name, TEST_BODY);
+
+        assertFalse(Amino.isRegistered(name));
+        assertArrayEquals(Amino.register(name).getPrefix(), Arrays.copyOfRange(encoded, 0, 4));
+        assertTrue(Amino.isRegistered(name));
+    }
+
+    @Test
+    public void testAddAminoPrefixIntoBuffer() {
+        final ByteBuffer out = ByteBuffer.allocate(TEST_ENCODED_BODY.length + 2);
+        out.put((byte) 0x7f);
+
+        Amino.addAminoPrefix(TEST_BODY_TYPE, TEST_BODY, out);
+
+        assertEquals(TEST_ENCODED_BODY.length + 1, out.position());
+        assertArrayEquals(TEST_ENCODED_BODY, Arrays.copyOfRange(out.array(), 1, out.position()));
+    }
+
+    @Test
+    public void testRemoveAminoPrefixFromBuffer() {
+        final ByteBuffer in = ByteBuffer.wrap(Bytes.concat(TEST_ENCODED_BODY, new byte[] { 1, 2 }));
+
+        final ByteBuffer body = Amino.removeAminoPrefix(in);
+
+        assertEquals(TEST_BODY.length, body.remaining());
+        assertEquals(TEST_ENCODED_BODY.length, in.position());
+        final byte[] bytes = new byte[body.remaining()];
+        body.get(bytes);
+        assertArrayEquals(TEST_BODY, bytes);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> Amino.removeAminoPrefix(ByteBuffer.wrap(TEST_AMINO_PREFIX)));
+    }
 }
@@ -0,0 +1,96 @@
+package network.finschia.sdk.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.bitcoinj.core.Bech32;
+import org.junit.jupiter.api.Test;
+
+public class Bech32CodecTest {
+
+    @Test
+    public void testValidChecksums() {
+        // test vectors of BIP-173 and BIP-350
+        for (String bech32 : new String[] {
+                "A12UEL5L",
+                "a12uel5l",
+                "abcdef1qpzry9x8gf2tvdw0s3jn54khce6mua7lmqqqxw",
+                "split1checkupstagehandshakeupstreamerranterredcaperred2y9e3w",
+                "?1ezyfcl" }) {
+            decode(Bech32Codec.Encoding.BECH32, bech32);
+        }
+        for (String bech32 : new String[] {
+                "A1LQFN3A",
+                "a1lqfn3a",
+                "abcdef1l7aum6echk45nj3s0wdvt2fg8x9yrzpqzd3ryx",
+                "split1checkupstagehandshakeupstreamerranterredcaperredlc445v",
+                "?1v759aa" }) {
+            decode(Bech32Codec.Encoding.BECH32M, bech32);
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        for (String bech32 : new String[] {
+                " 1nwldj5",
+                "pzry9x0s0muk",
+                "1pzry9x0s0muk",
+                "x1b4n0q5v",
+                "li1dgmt3",
+                "A1G7SGD8",
+                "10a06t8",
+                "1qzzfhee",
+                "a12uEL5L",
+                "a12uel5m",
+                "an84characterslonghumanreadablepartthatcontainsthetheexcludedcharactersbioandnumber11d6pts4" }) {
+            assertThrows(IllegalArgumentException.class, () -> decode(Bech32Codec.Encoding.BECH32, bech32), bech32);
+        }
+        assertThrows(IllegalArgumentException.class, () -> decode(Bech32Codec.Encoding.BECH32M, "a12uel5l"));
+    }
+
+    @Test
+    public void testSameAsBitcoinj() {
+        final Random random = new Random(1);
+        for (int size = 0; size < 50; size++) {
+            final byte[] data = new byte[size];
+            random.nextBytes(data);
+            final String expected = Bech32.encode("link", Bech32Utils.convertBits(data, 0, size, 8, 5, true));
+
+            final String bech32 = Bech32Codec.encode(Bech32Codec.Encoding.BECH32, "link", data);
+            assertEquals(expected, bech32);
+            assertEquals("link", Bech32Codec.hrp(bech32));
+            assertArrayEquals(data, decode(Bech32Codec.Encoding.BECH32, bech32));
+        }
+    }
+
+    @Test
+    public void testEncodeIntoBuffer() {
+        final byte[] data = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+        final char[] out = new char[100];
+
+        final int written = Bech32Codec.encode(Bech32Codec.Encoding.BECH32M, "LINK", data, 2, 5, out, 3);
+
+        assertEquals(Bech32Codec.encodedLength(4, 5), written);
+        final String bech32 = new String(out, 3, written);
+        assertEquals("link1", bech32.substring(0, 5));
+        assertArrayEquals(Arrays.copyOfRange(data, 2, 7), decode(Bech32Codec.Encoding.BECH32M, bech32));
+    }
+
+    @Test
+    public void testInvalidPadding() {
+        // a valid checksum over two 5-bit groups whose last 2 bits, the padding, are not zero
+        final String bech32 = Bech32.encode("link", new byte[] { 0, 1 });
+
+        assertThrows(IllegalArgumentException.class, () -> decode(Bech32Codec.Encoding.BECH32, bech32));
+    }
+
+    private static byte[] decode(Bech32Codec.Encoding encoding, String bech32) {
+        final byte[] out = new byte[Bech32Codec.decodedLength(bech32)];
+        assertEquals(out.length, Bech32Codec.decode(encoding, bech32, out, 0));
+        return out;
+    }
+}
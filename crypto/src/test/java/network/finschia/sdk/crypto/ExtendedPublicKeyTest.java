@@ -0,0 +1,74 @@
+package network.finschia.sdk.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Bip32ECKeyPair;
+
+public class ExtendedPublicKeyTest {
+    // test vector 1 of BIP-32
+    private static final byte[] SEED = Hex.decode("000102030405060708090a0b0c0d0e0f");
+    private static final String XPUB_M_0H_1 =
+            "xpub6ASuArnXKPbfEwhqN6e3mwBcDTgzisQN1wXN9BJcM47sSikHjJf3UFHKkNAWbWMiGj7Wf5uMash7SyYq527Hqck2AxYysAA7xmALppuCkwQ";
+    private static final String XPUB_M_0H_1_2H_2 =
+            "xpub6FHa3pjLCk84BayeJxFW2SP4XRrFd1JYnxeLeU8EqN3vDfZmbqBqaGJAyiLjTAwm6ZLRQUMv1ZACTj37sR62cfN7fe5JnJ7dh8zL4fiyLHV";
+    private static final String XPUB_M_0H_1_2H_2_1000000000 =
+            "xpub6H1LXWLaKsWFhvm6RVpEL9P4KfRZSW7abD2ttkWP3SSQvnyA8FSVqNTEcYFgJS2UaFcxupHiYkro49S8yGasTvXEYBVPamhGW6cFJodrTHy";
+
+    private static Bip32ECKeyPair derive(int... path) {
+        return Bip32ECKeyPair.deriveKeyPair(Bip32ECKeyPair.generateKeyPair(SEED), path);
+    }
+
+    @Test
+    public void testFromKeyPair() {
+        final ExtendedPublicKey xpub = ExtendedPublicKey.fromKeyPair(derive(Bip32ECKeyPair.HARDENED_BIT, 1));
+
+        assertEquals(XPUB_M_0H_1, xpub.toBase58());
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(XPUB_M_0H_1, ExtendedPublicKey.parse(XPUB_M_0H_1).toBase58());
+    }
+
+    @Test
+    public void testDeriveChild() {
+        final ExtendedPublicKey xpub = ExtendedPublicKey.parse(XPUB_M_0H_1_2H_2);
+
+        assertEquals(XPUB_M_0H_1_2H_2_1000000000, xpub.deriveChild(1000000000).toBase58());
+    }
+
+    @Test
+    public void testDeriveChildPublicKeys() {
+        final Bip32ECKeyPair keyPair = derive(Bip32ECKeyPair.HARDENED_BIT, 1);
+        final ExtendedPublicKey xpub = ExtendedPublicKey.fromKeyPair(keyPair);
+
+        final byte[][] publicKeys = xpub.deriveChildPublicKeys(10, 32);
+        assertEquals(32, publicKeys.length);
+        for (int i = 0; i < publicKeys.length; i++) {
+            final byte[] expected =
+                    LinkKeys.getPublicKey(Bip44WalletUtils.generatePrivateKey(keyPair, 10 + i), true);
+            assertArrayEquals(expected, publicKeys[i]);
+            assertArrayEquals(expected, xpub.deriveChildPublicKey(10 + i));
+        }
+    }
+
+    @Test
+    public void testDeriveHardenedChild() {
+        final ExtendedPublicKey xpub = ExtendedPublicKey.parse(XPUB_M_0H_1);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> xpub.deriveChildPublicKey(Bip32ECKeyPair.HARDENED_BIT));
+        assertThrows(IllegalArgumentException.class,
+                     () -> xpub.deriveChildPublicKeys(Integer.MAX_VALUE, 2));
+    }
+
+    @Test
+    public void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> ExtendedPublicKey.parse(XPUB_M_0H_1 + "1"));
+        assertThrows(IllegalArgumentException.class, () -> ExtendedPublicKey.parse("invalid"));
+    }
+}
@@ -0,0 +1,105 @@
+package network.finschia.sdk.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class KeyStoreLoaderTest {
+    private static final String TEST_PASSWORD = "1234567890";
+    private static final int KEY_COUNT = 4;
+    private static final List<byte[]> privateKeys = new ArrayList<>();
+    private static final List<KeyStore> keyStores = new ArrayList<>();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        for (int i = 0; i < KEY_COUNT; i++) {
+            final byte[] privateKey = LinkKeys.createPrivateKey();
+            privateKeys.add(privateKey);
+            keyStores.add(KeyStore.createFromPrivateKey(privateKey, TEST_PASSWORD));
+        }
+    }
+
+    @Test
+    public void testUnlock() {
+        try (KeyStoreLoader loader = new KeyStoreLoader(2, null)) {
+            final List<byte[]> unlocked = loader.unlock(keyStores, TEST_PASSWORD);
+
+            assertEquals(KEY_COUNT, unlocked.size());
+            for (int i = 0; i < KEY_COUNT; i++) {
+                assertArrayEquals(privateKeys.get(i), unlocked.get(i));
+            }
+
+            final List<String> names = Thread.getAllStackTraces().keySet().stream()
+                                             .map(Thread::getName)
+                                             .filter(name -> name.startsWith("keystore-loader"))
+                                             .collect(Collectors.toList());
+            final Set<String> distinct = names.stream().collect(Collectors.toSet());
+            assertEquals(names.size(), distinct.size(), "the threads must have distinct names");
+        }
+    }
+
+    @Test
+    public void testUnlockWithWrongPassword() {
+        try (KeyStoreLoader loader = new KeyStoreLoader()) {
+            assertThrows(RuntimeException.class, () -> loader.unlock(keyStores, "wrong"));
+        }
+    }
+
+    @Test
+    public void testUnlockDirectory(@TempDir Path directory) throws IOException {
+        for (int i = 0; i < KEY_COUNT; i++) {
+            Files.write(directory.resolve("key" + i), keyStores.get(i).export().getBytes(StandardCharsets.US_ASCII));
+        }
+        final DerivedKeyCache cache = new DerivedKeyCache(Duration.ofMinutes(1), 16);
+
+        try (KeyStoreLoader loader = new KeyStoreLoader(KEY_COUNT, cache)) {
+            final Map<Path, byte[]> unlocked = loader.unlockDirectory(directory, TEST_PASSWORD);
+
+            assertEquals(KEY_COUNT, unlocked.size());
+            for (int i = 0; i < KEY_COUNT; i++) {
+                assertArrayEquals(privateKeys.get(i), unlocked.get(directory.resolve("key" + i)));
+            }
+            assertEquals(KEY_COUNT, cache.size());
+        }
+    }
+
+    @Test
+    public void testCancelOnFailure(@TempDir Path directory) throws IOException {
+        // sorted before the keystores, and fails without running the KDF
+        Files.write(directory.resolve("a-invalid"), "{}".getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            Files.write(directory.resolve("key" + i), keyStores.get(i).export().getBytes(StandardCharsets.US_ASCII));
+        }
+        final DerivedKeyCache cache = new DerivedKeyCache(Duration.ofMinutes(1), 16);
+
+        try (KeyStoreLoader loader = new KeyStoreLoader(1, cache)) {
+            assertThrows(RuntimeException.class, () -> loader.unlockDirectory(directory, TEST_PASSWORD));
+
+            // queued behind the keystores of the directory which were not cancelled
+            loader.unlock(keyStores.subList(KEY_COUNT - 1, KEY_COUNT), TEST_PASSWORD);
+            // the last keystore, and at most the one already being unlocked when the first file failed
+            assertTrue(cache.size() <= 2);
+        }
+    }
+
+    @Test
+    public void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyStoreLoader(0, null));
+    }
+}
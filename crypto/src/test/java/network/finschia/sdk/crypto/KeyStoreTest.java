@@ -1,5 +1,6 @@
 package network.finschia.sdk.crypto;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -13,6 +14,7 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.time.Duration;
 import java.util.Objects;
 
 import org.bouncycastle.util.encoders.Base64;
@@ -143,4 +145,33 @@ public class KeyStoreTest {
         }
     }
 
+    @Test
+    public void testGetPrivateKeyWithCache() {
+        final KeyStore keyStore = KeyStore.load(keyStoreData);
+        final DerivedKeyCache cache = new DerivedKeyCache(Duration.ofMinutes(1), 16);
+
+        final byte[] privateKey = keyStore.getPrivateKey(TEST_PASSWORD, cache);
+        assertEquals(TEST_PRIVATE_KEY, Base64.toBase64String(privateKey));
+        assertEquals(1, cache.size());
+
+        assertArrayEquals(privateKey, keyStore.getPrivateKey(TEST_PASSWORD, cache));
+        assertEquals(1, cache.size());
+
+        assertThrows(RuntimeException.class, () -> keyStore.getPrivateKey("wrong", cache));
+        assertEquals(2, cache.size());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testGetPrivateKeyWithExpiredCache() throws InterruptedException {
+        final KeyStore keyStore = KeyStore.load(keyStoreData);
+        final DerivedKeyCache cache = new DerivedKeyCache(Duration.ofMillis(1), 16);
+
+        keyStore.getPrivateKey(TEST_PASSWORD, cache);
+        Thread.sleep(10);
+
+        assertEquals(0, cache.size());
+    }
 }
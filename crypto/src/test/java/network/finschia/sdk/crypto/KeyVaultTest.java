@@ -0,0 +1,173 @@
+package network.finschia.sdk.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class KeyVaultTest {
+    private static final String TEST_PASSWORD = "1234567890";
+
+    private static byte[] address(int i) {
+        final byte[] address = new byte[20];
+        address[0] = (byte) i;
+        return address;
+    }
+
+    private static byte[] privateKey(int i) {
+        final byte[] privateKey = new byte[32];
+        privateKey[31] = (byte) (i + 1);
+        return privateKey;
+    }
+
+    @Test
+    public void testPutAndGet(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("vault");
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            for (int i = 0; i < 10; i++) {
+                vault.put(address(i), privateKey(i));
+            }
+            assertEquals(10, vault.size());
+            assertArrayEquals(privateKey(3), vault.getPrivateKey(address(3)));
+        }
+
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            assertEquals(10, vault.size());
+            for (int i = 0; i < 10; i++) {
+                assertArrayEquals(privateKey(i), vault.getPrivateKey(address(i)));
+            }
+            assertFalse(vault.contains(address(10)));
+            assertThrows(IllegalArgumentException.class, () -> vault.getPrivateKey(address(10)));
+
+            vault.put(address(10), privateKey(10));
+            assertTrue(vault.contains(address(10)));
+            assertArrayEquals(privateKey(10), vault.getPrivateKey(address(10)));
+        }
+    }
+
+    @Test
+    public void testReplace(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("vault");
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            vault.put(address(0), privateKey(0));
+            vault.put(address(0), privateKey(1));
+            assertArrayEquals(privateKey(1), vault.getPrivateKey(address(0)));
+        }
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            assertEquals(1, vault.size());
+            assertArrayEquals(privateKey(1), vault.getPrivateKey(address(0)));
+        }
+    }
+
+    @Test
+    public void testTruncatedRecord(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("vault");
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            vault.put(address(0), privateKey(0));
+            vault.put(address(1), privateKey(1));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            assertEquals(1, vault.size());
+            vault.put(address(2), privateKey(2));
+        }
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            assertArrayEquals(privateKey(0), vault.getPrivateKey(address(0)));
+            assertArrayEquals(privateKey(2), vault.getPrivateKey(address(2)));
+        }
+    }
+
+    @Test
+    public void testCorruptedRecord(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("vault");
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            vault.put(address(0), privateKey(0));
+            vault.put(address(1), privateKey(1));
+        }
+        final long size = Files.size(path);
+        final long recordSize = (size - emptySize(directory)) / 2;
+        // the ciphertext length of the first record
+        final ByteBuffer length = ByteBuffer.allocate(4).putInt(0x7fff);
+        length.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(length, size - recordSize * 2 + 1 + 20);
+        }
+
+        assertThrows(IOException.class, () -> KeyVault.open(path, TEST_PASSWORD));
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    public void testSwappedCipherTexts(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("vault");
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            vault.put(address(0), privateKey(0));
+            vault.put(address(1), privateKey(1));
+        }
+        final byte[] file = Files.readAllBytes(path);
+        final int recordSize = (int) ((file.length - emptySize(directory)) / 2);
+        final int cipherOffset = 1 + 20 + 8;
+        final int first = file.length - recordSize * 2 + cipherOffset;
+        final int second = file.length - recordSize + cipherOffset;
+        final byte[] cipherText = Arrays.copyOfRange(file, first, first + recordSize - cipherOffset);
+        System.arraycopy(file, second, file, first, cipherText.length);
+        System.arraycopy(cipherText, 0, file, second, cipherText.length);
+        Files.write(path, file);
+
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            assertThrows(IllegalStateException.class, () -> vault.getPrivateKey(address(0)));
+            assertThrows(IllegalStateException.class, () -> vault.getPrivateKey(address(1)));
+        }
+    }
+
+    private static long emptySize(Path directory) throws IOException {
+        final Path path = directory.resolve("empty");
+        KeyVault.open(path, TEST_PASSWORD).close();
+        return Files.size(path);
+    }
+
+    @Test
+    public void testWrongPassword(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("vault");
+        KeyVault.open(path, TEST_PASSWORD).close();
+
+        assertThrows(IllegalArgumentException.class, () -> KeyVault.open(path, "wrong"));
+    }
+
+    @Test
+    public void testNotVault(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("vault");
+        Files.write(path, new byte[128]);
+
+        assertThrows(IllegalArgumentException.class, () -> KeyVault.open(path, TEST_PASSWORD));
+    }
+
+    @Test
+    public void testLocked(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("vault");
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            vault.put(address(0), privateKey(0));
+
+            assertThrows(IOException.class, () -> KeyVault.open(path, TEST_PASSWORD));
+        }
+
+        try (KeyVault vault = KeyVault.open(path, TEST_PASSWORD)) {
+            assertArrayEquals(privateKey(0), vault.getPrivateKey(address(0)));
+        }
+    }
+}
@@ -12,11 +12,15 @@
  */
 package network.finschia.sdk.crypto;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.math.BigInteger;
 import java.util.Base64;
 
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.math.ec.ECPoint;
 import org.junit.jupiter.api.Test;
 
 public class LinkKeysTest {
@@ -47,4 +51,28 @@ public class LinkKeysTest {
                      Base64.getEncoder().encodeToString(publicKey));
     }
 
+    @Test
+    public void testGetPublicKeys() throws Exception {
+        final ECPoint g = ECNamedCurveTable.getParameterSpec("secp256k1").getG();
+        final byte[][] privateKeys = new byte[16][];
+        for (int i = 0; i < privateKeys.length; i++) {
+            privateKeys[i] = LinkKeys.createPrivateKey();
+        }
+
+        final byte[][] compressed = LinkKeys.getPublicKeys(privateKeys, true);
+        final byte[][] uncompressed = LinkKeys.getPublicKeys(privateKeys, false);
+
+        assertEquals(privateKeys.length, compressed.length);
+        for (int i = 0; i < privateKeys.length; i++) {
+            final ECPoint expected = g.multiply(new BigInteger(1, privateKeys[i]));
+            assertArrayEquals(expected.getEncoded(true), compressed[i]);
+            assertArrayEquals(expected.getEncoded(false), uncompressed[i]);
+            assertArrayEquals(LinkKeys.getPublicKey(privateKeys[i], true), compressed[i]);
+        }
+    }
+
+    @Test
+    public void testGetPublicKeysEmpty() throws Exception {
+        assertEquals(0, LinkKeys.getPublicKeys(new byte[0][], true).length);
+    }
 }
@@ -0,0 +1,108 @@
+package network.finschia.sdk.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.bouncycastle.jcajce.provider.digest.SHA256;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Sign;
+
+public class Secp256k1SignerTest {
+    private static final byte[] PRIVATE_KEY = Base64.getDecoder().decode("M5AzgP8Ztnk5jGoNV9gZx7qUknHUV2BOjcoYGjkS7AI=");
+    private static final byte[] MESSAGE = Base64.getDecoder().decode("G1eQ4dSk3HGi5Jicd9do/y0EzX+M0zTGSP0ajGe9/9Q=");
+
+    @Test
+    public void testSignRecoverable() {
+        final Secp256k1Signer signer = new Secp256k1Signer(PRIVATE_KEY);
+
+        assertEquals("CfNbzAFDD6WE0jZG+YOXEpSH6SqptfKL+FVzXffJQw1T7xMYj7A+uCXZDCrJZzbX3pgSQimJyyX5D0wCGf1QJgA=",
+                     Base64.getEncoder().encodeToString(signer.signRecoverable(MESSAGE)));
+    }
+
+    @Test
+    public void testSign() {
+        final Secp256k1Signer signer = new Secp256k1Signer(PRIVATE_KEY);
+
+        assertArrayEquals(Arrays.copyOfRange(signer.signRecoverable(MESSAGE), 0, 64), signer.sign(MESSAGE));
+    }
+
+    @Test
+    public void testRecoveryId() {
+        final Secp256k1Signer signer = new Secp256k1Signer(PRIVATE_KEY);
+        final BigInteger publicKey = ECDSASignature.publicFromPoint(signer.getPublicKey(false));
+
+        for (int i = 0; i < 64; i++) {
+            final byte[] message = new SHA256.Digest().digest(new byte[] { (byte) i });
+            final byte[] sig = signer.signRecoverable(message);
+            final org.web3j.crypto.ECDSASignature rs = new org.web3j.crypto.ECDSASignature(
+                    new BigInteger(1, Arrays.copyOfRange(sig, 0, 32)),
+                    new BigInteger(1, Arrays.copyOfRange(sig, 32, 64)));
+
+            assertEquals(publicKey, Sign.recoverFromSignature(sig[64], rs, message));
+            assertEquals(sig[64], signer.findRecoveryId(
+                    new BigInteger[] { rs.r, rs.s }, message));
+        }
+    }
+
+    @Test
+    public void testFindRecoveryIdOfOtherKey() {
+        final Secp256k1Signer signer = new Secp256k1Signer(PRIVATE_KEY);
+        final BigInteger[] sig = new Secp256k1Signer(new byte[] { 1 }).generateSignature(MESSAGE);
+
+        assertThrows(IllegalArgumentException.class, () -> signer.findRecoveryId(sig, MESSAGE));
+    }
+
+    @Test
+    public void testPublicKey() {
+        final Secp256k1Signer signer = new Secp256k1Signer(PRIVATE_KEY);
+
+        assertArrayEquals(LinkKeys.getPublicKey(PRIVATE_KEY, true), signer.getPublicKey(true));
+        assertArrayEquals(LinkKeys.getPublicKey(PRIVATE_KEY, false), signer.getPublicKey(false));
+    }
+
+    @Test
+    public void testSameAsECDSASignature() {
+        final Secp256k1Signer signer = new Secp256k1Signer(PRIVATE_KEY);
+        final ECDSASignature signature = new ECDSASignature(PRIVATE_KEY);
+
+        for (int i = 0; i < 16; i++) {
+            final byte[] message = new SHA256.Digest().digest(new byte[] { (byte) i });
+            final BigInteger[] sig = signature.generateSignature(message);
+            assertArrayEquals(signature.recoverableSerialize(sig, message), signer.signRecoverable(message));
+        }
+    }
+
+    @Test
+    public void testConcurrentSign() {
+        final Secp256k1Signer signer = new Secp256k1Signer(PRIVATE_KEY);
+        final List<byte[]> messages = IntStream.range(0, 64)
+                                               .mapToObj(i -> new SHA256.Digest().digest(new byte[] { (byte) i }))
+                                               .collect(Collectors.toList());
+        final List<byte[]> expected = messages.stream()
+                                              .map(signer::signRecoverable)
+                                              .collect(Collectors.toList());
+
+        final List<byte[]> actual = messages.parallelStream()
+                                            .map(signer::signRecoverable)
+                                            .collect(Collectors.toList());
+
+        for (int i = 0; i < messages.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testInvalidPrivateKey() {
+        assertThrows(IllegalArgumentException.class, () -> new Secp256k1Signer(new byte[32]));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new Secp256k1Signer(ECDSASignature.curve.getN().toByteArray()));
+    }
+}
@@ -0,0 +1,112 @@
+package network.finschia.sdk.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bouncycastle.jcajce.provider.digest.SHA256;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.Test;
+
+public class Secp256k1VerifierTest {
+    private static final int BATCH_SIZE = Secp256k1Verifier.PARALLEL_THRESHOLD * 3 + 1;
+
+    private static byte[] hash(int i) {
+        return new SHA256.Digest().digest(BigInteger.valueOf(i).toByteArray());
+    }
+
+    @Test
+    public void testVerify() {
+        final Secp256k1Signer signer = new Secp256k1Signer(hash(1));
+        final byte[] message = hash(2);
+        final byte[] signature = signer.sign(message);
+
+        assertTrue(Secp256k1Verifier.verify(signer.getPublicKey(true), message, signature));
+        assertTrue(Secp256k1Verifier.verify(signer.getPublicKey(false), message, signature));
+        assertTrue(Secp256k1Verifier.verify(signer.getPublicKey(true), message, signer.signRecoverable(message)));
+
+        assertFalse(Secp256k1Verifier.verify(signer.getPublicKey(true), hash(3), signature));
+        assertFalse(Secp256k1Verifier.verify(new Secp256k1Signer(hash(4)).getPublicKey(true), message, signature));
+    }
+
+    @Test
+    public void testVerifyMalformed() {
+        final Secp256k1Signer signer = new Secp256k1Signer(hash(1));
+        final byte[] message = hash(2);
+        final byte[] signature = signer.sign(message);
+        final byte[] publicKey = signer.getPublicKey(true);
+
+        assertFalse(Secp256k1Verifier.verify(publicKey, message, Arrays.copyOf(signature, 63)));
+        assertFalse(Secp256k1Verifier.verify(publicKey, message, new byte[64]));
+        assertFalse(Secp256k1Verifier.verify(new byte[33], message, signature));
+        assertFalse(Secp256k1Verifier.verify(new byte[0], message, signature));
+        assertFalse(Secp256k1Verifier.verify(Arrays.copyOf(publicKey, 20), message, signature));
+        assertFalse(Secp256k1Verifier.verify(Arrays.copyOf(signer.getPublicKey(false), 33), message, signature));
+
+        // a malformed key only fails its own entry of a batch
+        assertArrayEquals(new boolean[] { false, true },
+                          Secp256k1Verifier.verifyBatch(new byte[][] { new byte[0], publicKey },
+                                                        new byte[][] { message, message },
+                                                        new byte[][] { signature, signature }));
+
+        // the high-S form of a valid signature is rejected
+        final BigInteger s = new BigInteger(1, Arrays.copyOfRange(signature, 32, 64));
+        final byte[] highS = signature.clone();
+        System.arraycopy(BigIntegers.asUnsignedByteArray(32, ECDSASignature.curve.getN().subtract(s)), 0,
+                         highS, 32, 32);
+        assertFalse(Secp256k1Verifier.verify(publicKey, message, highS));
+    }
+
+    @Test
+    public void testVerifyBatch() {
+        final byte[][] publicKeys = new byte[BATCH_SIZE][];
+        final byte[][] messages = new byte[BATCH_SIZE][];
+        final byte[][] signatures = new byte[BATCH_SIZE][];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final Secp256k1Signer signer = new Secp256k1Signer(hash(i % 5 + 1));
+            publicKeys[i] = signer.getPublicKey(true);
+            messages[i] = hash(i + 100);
+            signatures[i] = signer.sign(messages[i]);
+        }
+
+        final boolean[] expected = new boolean[BATCH_SIZE];
+        Arrays.fill(expected, true);
+        assertArrayEquals(expected, Secp256k1Verifier.verifyBatch(publicKeys, messages, signatures));
+        assertTrue(Secp256k1Verifier.verifyAll(publicKeys, messages, signatures));
+
+        for (int i = 3; i < BATCH_SIZE; i += 37) {
+            messages[i] = hash(-i);
+            expected[i] = false;
+        }
+        signatures[BATCH_SIZE - 1] = new byte[64];
+        expected[BATCH_SIZE - 1] = false;
+        assertArrayEquals(expected, Secp256k1Verifier.verifyBatch(publicKeys, messages, signatures));
+        assertFalse(Secp256k1Verifier.verifyAll(publicKeys, messages, signatures));
+    }
+
+    @Test
+    public void testVerifyBatchWithDifferentLengths() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> Secp256k1Verifier.verifyBatch(new byte[2][], new byte[2][], new byte[1][]));
+    }
+
+    @Test
+    public void testBatchInverse() {
+        final BigInteger n = ECDSASignature.curve.getN();
+        final BigInteger[] values = { BigInteger.valueOf(3), null, BigInteger.valueOf(7), n.subtract(BigInteger.ONE) };
+        final BigInteger[] inverses = Secp256k1Verifier.batchInverse(values);
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                assertEquals(null, inverses[i]);
+            } else {
+                assertEquals(values[i].modInverse(n), inverses[i]);
+            }
+        }
+    }
+}
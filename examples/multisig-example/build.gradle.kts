@@ -13,7 +13,7 @@ dependencies {
     implementation("org.jetbrains.kotlinx:kotlinx-serialization-json:$kotlinxVersion")
 
     // Finschia sdk
-    implementation("network.finschia:finschia-kt-crypto:0.2.2")
+    implementation(project(":crypto"))
     implementation("network.finschia:finschia-proto:4.0.0")
 
     implementation(project(":tx"))
@@ -25,7 +25,6 @@ import kotlinx.serialization.json.*
 import network.finschia.sdk.account.HDWallet
 import network.finschia.sdk.account.KeyWallet
 import network.finschia.sdk.base.protoDecimalToJson
-import org.bouncycastle.jcajce.provider.digest.SHA256
 import java.util.*
 
 class MultiSigMsgCreateValidator {
@@ -153,8 +152,7 @@ class MultiSigMsgCreateValidator {
 }
 
 fun getSignDigest(signDoc: StdSignDoc): ByteArray {
-    return SHA256.Digest()
-        .digest(Json.encodeToJsonElement(signDoc).removeNull().sort().toString().toByteArray())
+    return hashSignDoc(signDoc)
 }
 
 suspend fun main() {
@@ -230,7 +228,7 @@ suspend fun main() {
         gasLimit,
         chainId
     )
-    println("UnsignedSignDoc: ${Json.encodeToJsonElement(unsignedSignDoc).removeNull().sort().toString()}")
+    println("UnsignedSignDoc: ${String(serializeSignDoc(unsignedSignDoc))}")
 
     //-----------------------------------------
     // step 3: generate signature digest
@@ -243,7 +241,7 @@ suspend fun main() {
     // step 4: sign
     //-----------------------------------------
     val signerToSigs: Map<String, ByteString> = signers.map {
-        it.address.toBech32(accountPrefix) to ByteString.copyFrom(it.sign(signDigest).copyOfRange(0, 64))
+        it.address.toBech32(accountPrefix) to ByteString.copyFrom(it.signCompact(signDigest))
     }.toMap()
 
     println(txBody.toByteString().toString())
@@ -7,7 +7,6 @@ import kotlinx.serialization.json.encodeToJsonElement
 import network.finschia.sdk.account.HDWallet
 import network.finschia.sdk.account.KeyWallet
 import network.finschia.sdk.legacymultisig.*
-import org.bouncycastle.jcajce.provider.digest.SHA256
 
 
 class MultisigMsgDelegate {
@@ -55,8 +54,7 @@ class MultisigMsgDelegate {
         }
 
         fun getSignDigest(signDoc: StdSignDoc): ByteArray {
-            return SHA256.Digest()
-                .digest(Json.encodeToJsonElement(signDoc).removeNull().sort().toString().toByteArray())
+            return hashSignDoc(signDoc)
         }
 
         fun generateSignDoc(
@@ -180,7 +178,7 @@ suspend fun main() {
     // step 4: sign
     //-----------------------------------------
     val signerToSigsDelegate: Map<String, ByteString> = signers.map {
-        it.address.toBech32(accountPrefix) to ByteString.copyFrom(it.sign(signDigestDelegate).copyOfRange(0, 64))
+        it.address.toBech32(accountPrefix) to ByteString.copyFrom(it.signCompact(signDigestDelegate))
     }.toMap()
 
     //-----------------------------------------
@@ -8,7 +8,6 @@ import network.finschia.sdk.account.Address
 import network.finschia.sdk.account.HDWallet
 import network.finschia.sdk.account.KeyWallet
 import network.finschia.sdk.legacymultisig.*
-import org.bouncycastle.jcajce.provider.digest.SHA256
 
 class MultisigMsgSend {
     companion object {
@@ -69,8 +68,7 @@ class MultisigMsgSend {
         }
 
         fun getSignDigest(signDoc: StdSignDoc): ByteArray {
-            return SHA256.Digest()
-                .digest(Json.encodeToJsonElement(signDoc).removeNull().sort().toString().toByteArray())
+            return hashSignDoc(signDoc)
         }
 
         fun generateSignDoc(
@@ -198,7 +196,7 @@ suspend fun main() {
     // step 4: sign
     //-----------------------------------------
     val signerToSigs: Map<String, ByteString> = signers.map {
-        it.address.toBech32(accountPrefix) to ByteString.copyFrom(it.sign(signDigest).copyOfRange(0, 64))
+        it.address.toBech32(accountPrefix) to ByteString.copyFrom(it.signCompact(signDigest))
     }.toMap()
 
     //-----------------------------------------
@@ -6,7 +6,7 @@ dependencies {
     runtimeOnly(libs.grpc.netty)
 
     // Finschia sdk
-    implementation("network.finschia:finschia-kt-crypto:0.2.2")
+    implementation(project(":crypto"))
     implementation("network.finschia:finschia-proto:4.0.0")
 
     implementation(project(":tx"))
@@ -10,7 +10,7 @@ dependencies {
     implementation("org.bitcoinj:bitcoinj-core:$bitcoinjVersion")
 
     // Finschia sdk
-    implementation("network.finschia:finschia-kt-crypto:0.2.2")
+    implementation(project(":crypto"))
     implementation("network.finschia:finschia-proto:4.0.0")
 }
 
@@ -135,7 +135,7 @@ class ConcreteScenarios {
             }
 
             val digest = SHA256.Digest().digest(signDoc.toByteArray())
-            val signature = ByteString.copyFrom(wallet.sign(digest).copyOfRange(0, 64))
+            val signature = ByteString.copyFrom(wallet.signCompact(digest))
 
             return cosmos.tx.v1beta1.txRaw {
                 bodyBytes = unsigned.bodyBytes
@@ -19,6 +19,7 @@ include(
     "protobuf",
     "crypto",
     "tx",
+    "tx-submission",
 )
 
 include(
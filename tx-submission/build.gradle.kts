@@ -0,0 +1,17 @@
+plugins {
+    id("network.finschia.sdk.kotlin-library-conventions")
+}
+
+dependencies {
+    implementation(libs.kotlinx.coroutines.core)
+    implementation(libs.grpc.kotlin.stub)
+    implementation(libs.grpc.protobuf)
+    implementation(libs.grpc.stub)
+
+    // Finschia sdk
+    implementation(project(":crypto"))
+    implementation("network.finschia:finschia-proto:4.0.0")
+    implementation(project(":tx"))
+
+    testImplementation(libs.grpc.core)
+}
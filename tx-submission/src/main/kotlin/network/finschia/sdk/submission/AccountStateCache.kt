@@ -0,0 +1,179 @@
+package network.finschia.sdk.submission
+
+import network.finschia.sdk.account.Account
+import network.finschia.sdk.account.Address
+import network.finschia.sdk.account.Type.Companion.DEFAULT_BECH32_HRP_PREFIX
+
+import com.google.protobuf.Any
+import cosmos.auth.v1beta1.Auth.BaseAccount
+import cosmos.auth.v1beta1.Auth.ModuleAccount
+import cosmos.auth.v1beta1.QueryGrpcKt.QueryCoroutineStub
+import cosmos.vesting.v1beta1.Vesting.BaseVestingAccount
+import cosmos.vesting.v1beta1.Vesting.ContinuousVestingAccount
+import cosmos.vesting.v1beta1.Vesting.DelayedVestingAccount
+import cosmos.vesting.v1beta1.Vesting.PeriodicVestingAccount
+import cosmos.vesting.v1beta1.Vesting.PermanentLockedAccount
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.cancel
+
+import java.io.Closeable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Account numbers and sequences of accounts, queried once from the auth query service of a node.
+ *
+ * Concurrent lookups of an account not cached yet share one query. The account number never changes, and the
+ * sequence only grows with [nextSequence], [advance] and [refresh], as the txs of the account are sent, since
+ * txs still in the mempool are not counted in the sequence of the chain yet. Only [reset] moves it back, e.g.
+ * when a tx is rejected and its sequence must be used again.
+ *
+ * @param stub stub of the auth query service of a node
+ * @param hrpPrefix bech32 prefix of the addresses of the chain
+ */
+class AccountStateCache(
+    private val stub: QueryCoroutineStub,
+    private val hrpPrefix: String = DEFAULT_BECH32_HRP_PREFIX,
+) : Closeable {
+    private class State(val address: Address, val number: Long, sequence: Long) {
+        val sequence = AtomicLong(sequence)
+
+        fun snapshot(): Account = CachedAccount(address, number, sequence.get())
+    }
+
+    private data class CachedAccount(
+        override val address: Address,
+        override val number: Long,
+        override val sequence: Long,
+    ) : Account
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    private val states = ConcurrentHashMap<Address, Deferred<State>>()
+
+    /**
+     * Returns the account number and the sequence of [address], querying them if they are not cached.
+     */
+    suspend fun get(address: Address): Account = load(address).snapshot()
+
+    /**
+     * Starts querying the accounts not cached yet, without waiting for them.
+     */
+    fun prefetch(addresses: Collection<Address>) {
+        addresses.forEach { states.computeIfAbsent(it, ::query) }
+    }
+
+    /**
+     * Returns the sequence for the next tx of [address] and increments the cached one, expecting the tx to be
+     * accepted by the chain.
+     */
+    suspend fun nextSequence(address: Address): Long = load(address).sequence.getAndIncrement()
+
+    /**
+     * Raises the cached sequence of [address] to [sequence] if it is lower, e.g. when the chain expects a higher one.
+     *
+     * @return the cached sequence
+     */
+    suspend fun advance(address: Address, sequence: Long): Long =
+        load(address).sequence.accumulateAndGet(sequence, ::maxOf)
+
+    /**
+     * Queries the account of [address] again, raising the cached sequence to the one of the chain if it is lower.
+     * Sequences handed out by [nextSequence] for txs not committed yet are kept.
+     */
+    suspend fun refresh(address: Address): Account {
+        val cached = states[address]
+        // a query in progress is as fresh as a new one
+        if (cached == null || !cached.isCompleted) return get(address)
+
+        val state = load(address)
+        val chain = query(address).await()
+        state.sequence.accumulateAndGet(chain.sequence.get(), ::maxOf)
+        return state.snapshot()
+    }
+
+    /**
+     * Sets the cached sequence of [address] to [sequence] even if it is lower, e.g. when a tx is rejected and the
+     * chain expects its sequence again.
+     *
+     * @return the account with the new sequence
+     */
+    suspend fun reset(address: Address, sequence: Long): Account {
+        require(sequence >= 0) { "sequence must not be negative: $sequence" }
+        val state = load(address)
+        state.sequence.set(sequence)
+        return state.snapshot()
+    }
+
+    /**
+     * Forgets the account of [address], which is queried again on the next lookup.
+     */
+    fun invalidate(address: Address) {
+        states.remove(address)
+    }
+
+    private suspend fun load(address: Address): State {
+        val state = states.computeIfAbsent(address, ::query)
+        try {
+            return state.await()
+        } catch (e: Exception) {
+            // the next lookup queries again, unless only this lookup is cancelled
+            if (state.isCompleted) states.remove(address, state)
+            throw e
+        }
+    }
+
+    private fun query(address: Address) = scope.async {
+        val response = stub.account(cosmos.auth.v1beta1.queryAccountRequest {
+            this.address = address.toBech32(hrpPrefix)
+        })
+        val account = parseBaseAccount(response.account)
+        State(address, account.accountNumber, account.sequence)
+    }
+
+    /**
+     * Stops the queries in progress.
+     */
+    override fun close() {
+        scope.cancel()
+    }
+
+    companion object {
+        /**
+         * Returns the base account of [account], which is a base account, a module account or a vesting account.
+         *
+         * @throws IllegalArgumentException if the type of [account] is not supported or it has no base account
+         */
+        fun parseBaseAccount(account: Any): BaseAccount {
+            val value = account.value
+            val base = when (account.typeUrl) {
+                "/cosmos.auth.v1beta1.BaseAccount" -> return BaseAccount.parseFrom(value)
+                "/cosmos.auth.v1beta1.ModuleAccount" -> ModuleAccount.parseFrom(value).let {
+                    if (it.hasBaseAccount()) it.baseAccount else null
+                }
+                "/cosmos.vesting.v1beta1.BaseVestingAccount" -> baseOf(BaseVestingAccount.parseFrom(value))
+                "/cosmos.vesting.v1beta1.ContinuousVestingAccount" -> ContinuousVestingAccount.parseFrom(value).let {
+                    if (it.hasBaseVestingAccount()) baseOf(it.baseVestingAccount) else null
+                }
+                "/cosmos.vesting.v1beta1.DelayedVestingAccount" -> DelayedVestingAccount.parseFrom(value).let {
+                    if (it.hasBaseVestingAccount()) baseOf(it.baseVestingAccount) else null
+                }
+                "/cosmos.vesting.v1beta1.PeriodicVestingAccount" -> PeriodicVestingAccount.parseFrom(value).let {
+                    if (it.hasBaseVestingAccount()) baseOf(it.baseVestingAccount) else null
+                }
+                "/cosmos.vesting.v1beta1.PermanentLockedAccount" -> PermanentLockedAccount.parseFrom(value).let {
+                    if (it.hasBaseVestingAccount()) baseOf(it.baseVestingAccount) else null
+                }
+                else -> throw IllegalArgumentException("Unsupported account type: ${account.typeUrl}")
+            }
+            // an empty base account would be taken for the account number 0
+            return requireNotNull(base) { "No base account in the account of type ${account.typeUrl}" }
+        }
+
+        private fun baseOf(account: BaseVestingAccount) = if (account.hasBaseAccount()) account.baseAccount else null
+    }
+}
@@ -0,0 +1,48 @@
+package network.finschia.sdk.submission
+
+/**
+ * Hands out the sequences of one account locally, without asking the chain for every tx.
+ *
+ * When the chain reports another sequence, [resync] resets the next sequence. Sequences handed out before the
+ * resync belong to an older generation, and their failures do not reset the sequence again.
+ *
+ * @param sequence the next sequence of the account
+ */
+class SequenceAllocator(sequence: Long) {
+    class Allocation internal constructor(val sequence: Long, internal val generation: Long)
+
+    private var next = sequence
+    private var generation = 0L
+
+    init {
+        require(sequence >= 0) { "sequence must not be negative: $sequence" }
+    }
+
+    /**
+     * The sequence the next allocation gets
+     */
+    val nextSequence: Long
+        @Synchronized get() = next
+
+    @Synchronized
+    fun allocate() = Allocation(next++, generation)
+
+    /**
+     * Resets the next sequence to [sequence], unless a resync happened since [allocation], or the chain expects a
+     * sequence already allocated after [allocation], whose tx is sent after the rejected one.
+     *
+     * @param allocation the allocation of the tx which the chain rejected
+     * @param sequence the sequence the chain expects
+     * @return true if the next sequence is reset
+     */
+    @Synchronized
+    fun resync(allocation: Allocation, sequence: Long): Boolean {
+        require(sequence >= 0) { "sequence must not be negative: $sequence" }
+        if (allocation.generation != generation) return false
+        if (sequence > allocation.sequence && sequence <= next) return false
+
+        next = sequence
+        generation++
+        return true
+    }
+}
@@ -0,0 +1,256 @@
+package network.finschia.sdk.submission
+
+import network.finschia.sdk.base.AsyncWallet
+import network.finschia.sdk.base.Tx
+
+import com.google.protobuf.Any
+import cosmos.base.abci.v1beta1.Abci.TxResponse
+import cosmos.tx.v1beta1.ServiceGrpcKt
+import cosmos.tx.v1beta1.ServiceGrpcKt.ServiceCoroutineStub
+import cosmos.tx.v1beta1.ServiceOuterClass.BroadcastMode
+import cosmos.tx.v1beta1.ServiceOuterClass.BroadcastTxResponse
+import cosmos.tx.v1beta1.TxOuterClass.Fee
+
+import io.grpc.stub.ClientCalls
+import io.grpc.stub.StreamObserver
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+
+import java.io.Closeable
+import java.util.concurrent.CancellationException
+
+/**
+ * Broadcasts the txs of one account without waiting for the previous ones to be checked by the chain.
+ *
+ * The sequences are allocated locally by a [SequenceAllocator], and the txs are sent in the order of their
+ * sequences, with up to [maxInFlight] txs waiting for their responses. The txs queued while the window has room are
+ * signed together with [Tx.signBatch], in one round trip to a remote signer. The calls are started one by one on
+ * the channel of [stub], so the node receives the txs in order, and their responses are awaited concurrently.
+ *
+ * When the chain rejects a tx for an account sequence mismatch, the sequence is reset to the one the chain expects,
+ * unless a tx sent after it already has that sequence, and the tx is signed again with a new sequence, up to
+ * [maxResyncs] times. Txs signed again are sent after the
+ * txs submitted in the meantime.
+ *
+ * @param stub stub of the tx service of a node
+ * @param chainId chain id of the txs
+ * @param wallet the signer of the txs
+ * @param accountNumber account number of the signer
+ * @param sequence the next sequence of the signer
+ * @param maxInFlight the maximum number of txs waiting for their responses
+ * @param maxResyncs the maximum number of times one tx is signed again after a sequence mismatch
+ */
+class TxSubmitter(
+    private val stub: ServiceCoroutineStub,
+    private val chainId: String,
+    private val wallet: AsyncWallet,
+    private val accountNumber: Long,
+    sequence: Long,
+    private val maxInFlight: Int = DEFAULT_MAX_IN_FLIGHT,
+    private val maxResyncs: Int = DEFAULT_MAX_RESYNCS,
+) : Closeable {
+    private class Submission(
+        val messages: List<Any>,
+        val fee: Fee,
+        val memo: String,
+        val response: CompletableDeferred<TxResponse>,
+    ) {
+        var resyncs = 0
+    }
+
+    init {
+        // checked before the semaphore is built with maxInFlight
+        require(maxInFlight > 0) { "maxInFlight must be positive: $maxInFlight" }
+        require(maxResyncs >= 0) { "maxResyncs must not be negative: $maxResyncs" }
+    }
+
+    private val sequences = SequenceAllocator(sequence)
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    private val submissions = Channel<Submission>(Channel.UNLIMITED)
+    private val inFlight = Semaphore(maxInFlight)
+
+    init {
+        scope.launch { send() }
+    }
+
+    /**
+     * The sequence the next tx is signed with
+     */
+    val nextSequence get() = sequences.nextSequence
+
+    /**
+     * Signs a tx of the [messages] with the next sequence and broadcasts it in sync mode.
+     *
+     * @return the response of the chain checking the tx. The code is not 0 if the tx is rejected.
+     */
+    suspend fun submit(messages: List<Any>, fee: Fee, memo: String = ""): TxResponse {
+        val submission = Submission(messages, fee, memo, CompletableDeferred())
+        submissions.send(submission)
+        return submission.response.await()
+    }
+
+    private suspend fun send() {
+        while (true) {
+            val first = submissions.receiveCatching().getOrNull() ?: return
+            try {
+                inFlight.acquire()
+            } catch (e: CancellationException) {
+                first.response.cancel()
+                throw e
+            }
+
+            // the submissions already queued join the window while it has room, to be signed in one round trip
+            val window = mutableListOf(first)
+            while (inFlight.tryAcquire()) {
+                val next = submissions.tryReceive().getOrNull()
+                if (next == null) {
+                    inFlight.release()
+                    break
+                }
+                window += next
+            }
+            sendWindow(window)
+        }
+    }
+
+    private suspend fun sendWindow(window: List<Submission>) {
+        val allocations = window.map { sequences.allocate() }
+        val txs = window.mapIndexed { index, submission ->
+            Tx.newBuilder()
+                .setChainId(chainId)
+                .apply { submission.messages.forEach { addMessage(it) } }
+                .addSigner(wallet, allocations[index].sequence)
+                .setFee(submission.fee)
+                .setMemo(submission.memo)
+                .build()
+        }
+        try {
+            Tx.signBatch(wallet, txs, accountNumber)
+        } catch (e: Throwable) {
+            fail(window, allocations, 0, e)
+            return
+        }
+
+        txs.forEachIndexed { index, tx ->
+            val submission = window[index]
+            val allocation = allocations[index]
+            val response = try {
+                startBroadcast(tx)
+            } catch (e: Throwable) {
+                // the later txs would be sent after a gap in the sequences
+                fail(window, allocations, index, e)
+                return
+            }
+
+            scope.launch {
+                try {
+                    handle(submission, allocation, response.await().txResponse)
+                } catch (e: Throwable) {
+                    submission.response.completeExceptionally(e)
+                } finally {
+                    inFlight.release()
+                }
+            }.invokeOnCompletion { cause ->
+                // the response is not handled at all if the submitter is closed before
+                if (cause != null) {
+                    response.cancel()
+                    submission.response.completeExceptionally(cause)
+                }
+            }
+        }
+    }
+
+    // fails the submissions of the window from [from], which are not sent
+    private fun fail(window: List<Submission>, allocations: List<SequenceAllocator.Allocation>, from: Int, e: Throwable) {
+        // their sequences are not used by any tx
+        sequences.resync(allocations[from], allocations[from].sequence)
+        for (index in from until window.size) {
+            inFlight.release()
+            if (e is CancellationException) {
+                window[index].response.cancel()
+            } else {
+                window[index].response.completeExceptionally(e)
+            }
+        }
+        if (e is CancellationException) throw e
+    }
+
+    private fun startBroadcast(tx: Tx): Deferred<BroadcastTxResponse> {
+        val request = cosmos.tx.v1beta1.broadcastTxRequest {
+            txBytes = tx.raw().toByteString()
+            mode = BroadcastMode.BROADCAST_MODE_SYNC
+        }
+        val response = CompletableDeferred<BroadcastTxResponse>()
+        val call = stub.channel.newCall(ServiceGrpcKt.broadcastTxMethod, stub.callOptions)
+        response.invokeOnCompletion { cause ->
+            if (cause is CancellationException) call.cancel("The broadcast is cancelled", cause)
+        }
+        // unlike the suspending stub, the request is sent before returning
+        ClientCalls.asyncUnaryCall(call, request, object : StreamObserver<BroadcastTxResponse> {
+            override fun onNext(value: BroadcastTxResponse) {
+                response.complete(value)
+            }
+
+            override fun onError(t: Throwable) {
+                response.completeExceptionally(t)
+            }
+
+            override fun onCompleted() {}
+        })
+        return response
+    }
+
+    private suspend fun handle(submission: Submission, allocation: SequenceAllocator.Allocation, response: TxResponse) {
+        if (response.code == 0) {
+            submission.response.complete(response)
+            return
+        }
+
+        // a tx rejected by the check does not use its sequence
+        val expected = expectedSequence(response)
+        sequences.resync(allocation, expected ?: allocation.sequence)
+        if (expected != null && submission.resyncs < maxResyncs) {
+            submission.resyncs++
+            submissions.send(submission)
+        } else {
+            submission.response.complete(response)
+        }
+    }
+
+    /**
+     * Stops sending the txs, failing the ones waiting for their responses.
+     */
+    override fun close() {
+        submissions.close()
+        scope.cancel(CancellationException("The submitter is closed"))
+        while (true) {
+            val submission = submissions.tryReceive().getOrNull() ?: break
+            submission.response.cancel()
+        }
+    }
+
+    companion object {
+        const val DEFAULT_MAX_IN_FLIGHT = 16
+        const val DEFAULT_MAX_RESYNCS = 3
+
+        private const val SDK_CODESPACE = "sdk"
+        private const val WRONG_SEQUENCE_CODE = 32
+        private val SEQUENCE_MISMATCH_LOG = "account sequence mismatch, expected (\\d+), got (\\d+)".toRegex()
+
+        /**
+         * Returns the sequence the chain expects if [response] reports an account sequence mismatch.
+         */
+        fun expectedSequence(response: TxResponse): Long? {
+            if (response.codespace != SDK_CODESPACE || response.code != WRONG_SEQUENCE_CODE) return null
+            return SEQUENCE_MISMATCH_LOG.find(response.rawLog)?.groupValues?.get(1)?.toLongOrNull()
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package network.finschia.sdk.submission
+
+import network.finschia.sdk.account.HDWallet
+
+import cosmos.auth.v1beta1.QueryGrpcKt
+import cosmos.auth.v1beta1.QueryOuterClass.QueryAccountRequest
+import cosmos.auth.v1beta1.QueryOuterClass.QueryAccountResponse
+
+import io.grpc.ManagedChannel
+import io.grpc.Server
+import io.grpc.Status
+import io.grpc.StatusException
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.inprocess.InProcessServerBuilder
+
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.Assertions.*
+
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+class AccountStateCacheTest {
+    val mnemonic = "mind flame tobacco sense move hammer drift crime ring globe art gaze cinnamon helmet cruise special produce notable negative wait path scrap recall have"
+    val hdWallet = HDWallet.loadFromMnemonic(mnemonic)
+    val alice = hdWallet.getKeyWallet(0).address
+    val bob = hdWallet.getKeyWallet(1).address
+
+    // an in-process stand-in of the auth query service of a node
+    class FakeQueryService : QueryGrpcKt.QueryCoroutineImplBase() {
+        val accounts = ConcurrentHashMap<String, Pair<Long, Long>>()
+        val queries = AtomicInteger()
+
+        override suspend fun account(request: QueryAccountRequest): QueryAccountResponse {
+            queries.incrementAndGet()
+            delay(20)
+            val (number, sequence) = accounts[request.address]
+                ?: throw StatusException(Status.NOT_FOUND.withDescription("account ${request.address} not found"))
+            return cosmos.auth.v1beta1.queryAccountResponse {
+                account = com.google.protobuf.any {
+                    typeUrl = "/cosmos.auth.v1beta1.BaseAccount"
+                    value = cosmos.auth.v1beta1.baseAccount {
+                        address = request.address
+                        accountNumber = number
+                        this.sequence = sequence
+                    }.toByteString()
+                }
+            }
+        }
+    }
+
+    private val service = FakeQueryService()
+    private lateinit var server: Server
+    private lateinit var channel: ManagedChannel
+    private lateinit var cache: AccountStateCache
+
+    @BeforeEach fun start() {
+        val name = InProcessServerBuilder.generateName()
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(service).build().start()
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build()
+        cache = AccountStateCache(QueryGrpcKt.QueryCoroutineStub(channel), "link")
+        service.accounts[alice.toBech32("link")] = 3L to 10L
+    }
+
+    @AfterEach fun shutdown() {
+        cache.close()
+        channel.shutdownNow()
+        server.shutdownNow()
+    }
+
+    @Test fun coalesceLookups() = runBlocking<Unit> {
+        val accounts = (0 until 50).map { async { cache.get(alice) } }.awaitAll()
+
+        assertEquals(1, service.queries.get())
+        accounts.forEach {
+            assertEquals(alice, it.address)
+            assertEquals(3, it.number)
+            assertEquals(10, it.sequence)
+        }
+    }
+
+    @Test fun prefetch() = runBlocking<Unit> {
+        service.accounts[bob.toBech32("link")] = 4L to 0L
+
+        cache.prefetch(listOf(alice, bob))
+        assertEquals(4, cache.get(bob).number)
+        assertEquals(3, cache.get(alice).number)
+        assertEquals(2, service.queries.get())
+    }
+
+    @Test fun localIncrements() = runBlocking<Unit> {
+        val sequences = (0 until 20).map { async { cache.nextSequence(alice) } }.awaitAll()
+
+        assertEquals((10L until 30L).toList(), sequences.sorted())
+        assertEquals(30, cache.get(alice).sequence)
+
+        // the sequence never goes back locally
+        assertEquals(30, cache.advance(alice, 25))
+        assertEquals(40, cache.advance(alice, 40))
+        assertEquals(1, service.queries.get())
+    }
+
+    @Test fun refresh() = runBlocking<Unit> {
+        // the txs with sequences 10 to 12 are still in the mempool
+        repeat(3) { cache.nextSequence(alice) }
+        service.accounts[alice.toBech32("link")] = 3L to 11L
+
+        assertEquals(13, cache.refresh(alice).sequence)
+        assertEquals(13, cache.nextSequence(alice))
+        assertEquals(2, service.queries.get())
+
+        // txs of the account were sent by another client
+        service.accounts[alice.toBech32("link")] = 3L to 20L
+        assertEquals(20, cache.refresh(alice).sequence)
+        assertEquals(3, service.queries.get())
+
+        cache.invalidate(alice)
+        assertEquals(20, cache.get(alice).sequence)
+        assertEquals(4, service.queries.get())
+    }
+
+    @Test fun refreshWhileIncrementing() = runBlocking<Unit> {
+        val sequences = (0 until 20).map { index ->
+            async {
+                if (index == 10) cache.refresh(alice)
+                cache.nextSequence(alice)
+            }
+        }.awaitAll()
+
+        assertEquals((10L until 30L).toList(), sequences.sorted(), "no sequence is handed out twice")
+        assertEquals(30, cache.get(alice).sequence)
+    }
+
+    @Test fun reset() = runBlocking<Unit> {
+        assertEquals(10, cache.nextSequence(alice))
+        assertEquals(11, cache.nextSequence(alice))
+
+        // the tx with sequence 10 was rejected
+        assertEquals(10, cache.reset(alice, 10).sequence)
+        assertEquals(10, cache.nextSequence(alice))
+        assertEquals(1, service.queries.get())
+        assertThrows(IllegalArgumentException::class.java) { runBlocking { cache.reset(alice, -1) } }
+    }
+
+    @Test fun failedLookup() = runBlocking<Unit> {
+        val error = assertThrows(StatusException::class.java) { runBlocking { cache.get(bob) } }
+        assertEquals(Status.Code.NOT_FOUND, error.status.code)
+
+        // failures are not cached
+        service.accounts[bob.toBech32("link")] = 4L to 2L
+        assertEquals(2, cache.get(bob).sequence)
+        assertEquals(2, service.queries.get())
+    }
+
+    @Test fun parseBaseAccount() {
+        val base = cosmos.auth.v1beta1.baseAccount {
+            address = alice.toBech32("link")
+            accountNumber = 7
+            sequence = 1
+        }
+        assertEquals(base, AccountStateCache.parseBaseAccount(com.google.protobuf.any {
+            typeUrl = "/cosmos.auth.v1beta1.BaseAccount"
+            value = base.toByteString()
+        }))
+
+        val module = cosmos.auth.v1beta1.moduleAccount {
+            baseAccount = base
+            name = "fee_collector"
+        }
+        assertEquals(base, AccountStateCache.parseBaseAccount(com.google.protobuf.any {
+            typeUrl = "/cosmos.auth.v1beta1.ModuleAccount"
+            value = module.toByteString()
+        }))
+
+        val continuous = cosmos.vesting.v1beta1.continuousVestingAccount {
+            baseVestingAccount = cosmos.vesting.v1beta1.baseVestingAccount {
+                baseAccount = base
+                endTime = 5
+            }
+            startTime = 1
+        }
+        assertEquals(base, AccountStateCache.parseBaseAccount(com.google.protobuf.any {
+            typeUrl = "/cosmos.vesting.v1beta1.ContinuousVestingAccount"
+            value = continuous.toByteString()
+        }))
+
+        assertThrows(IllegalArgumentException::class.java) {
+            AccountStateCache.parseBaseAccount(com.google.protobuf.any { typeUrl = "/unknown.Account" })
+        }
+    }
+
+    @Test fun parseAccountWithoutBaseAccount() {
+        val module = cosmos.auth.v1beta1.moduleAccount { name = "fee_collector" }
+        assertThrows(IllegalArgumentException::class.java) {
+            AccountStateCache.parseBaseAccount(com.google.protobuf.any {
+                typeUrl = "/cosmos.auth.v1beta1.ModuleAccount"
+                value = module.toByteString()
+            })
+        }
+
+        val delayed = cosmos.vesting.v1beta1.delayedVestingAccount {
+            baseVestingAccount = cosmos.vesting.v1beta1.baseVestingAccount { endTime = 5 }
+        }
+        assertThrows(IllegalArgumentException::class.java) {
+            AccountStateCache.parseBaseAccount(com.google.protobuf.any {
+                typeUrl = "/cosmos.vesting.v1beta1.DelayedVestingAccount"
+                value = delayed.toByteString()
+            })
+        }
+    }
+}
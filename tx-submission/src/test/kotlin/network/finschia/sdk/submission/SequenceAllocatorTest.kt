@@ -0,0 +1,53 @@
+package network.finschia.sdk.submission
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.Assertions.*
+
+class SequenceAllocatorTest {
+    @Test fun allocate() {
+        val sequences = SequenceAllocator(3)
+        assertEquals(listOf(3L, 4L, 5L), (0 until 3).map { sequences.allocate().sequence })
+        assertEquals(6, sequences.nextSequence)
+    }
+
+    @Test fun resync() {
+        val sequences = SequenceAllocator(0)
+        val (first, second) = (0 until 2).map { sequences.allocate() }
+
+        // the chain expected 10 instead of the first sequence
+        assertTrue(sequences.resync(first, 10))
+        assertEquals(10, sequences.nextSequence)
+
+        // the second failed for the same reason, which is already handled
+        assertFalse(sequences.resync(second, 10))
+        assertEquals(10, sequences.allocate().sequence)
+
+        val third = sequences.allocate()
+        assertTrue(sequences.resync(third, third.sequence))
+        assertEquals(11, sequences.nextSequence)
+    }
+
+    @Test fun resyncBehind() {
+        val sequences = SequenceAllocator(0)
+        val (first, second) = (0 until 2).map { sequences.allocate() }
+        sequences.allocate()
+
+        // the chain expected 1, which the second tx already has
+        assertFalse(sequences.resync(first, 1))
+        assertEquals(3, sequences.nextSequence)
+
+        // the chain expected 3, which the next tx gets anyway
+        assertFalse(sequences.resync(second, 3))
+        assertEquals(3, sequences.nextSequence)
+
+        // a tx ahead of the chain is reset back
+        assertTrue(sequences.resync(second, 0))
+        assertEquals(0, sequences.nextSequence)
+    }
+
+    @Test fun negativeSequence() {
+        assertThrows(IllegalArgumentException::class.java) { SequenceAllocator(-1) }
+        val sequences = SequenceAllocator(0)
+        assertThrows(IllegalArgumentException::class.java) { sequences.resync(sequences.allocate(), -1) }
+    }
+}
@@ -0,0 +1,231 @@
+package network.finschia.sdk.submission
+
+import network.finschia.sdk.account.HDWallet
+import network.finschia.sdk.account.KeyWallet
+import network.finschia.sdk.base.AsyncWallet
+import network.finschia.sdk.base.Tx
+import network.finschia.sdk.base.asAsyncWallet
+
+import cosmos.base.abci.v1beta1.Abci.TxResponse
+import cosmos.tx.v1beta1.ServiceGrpcKt
+import cosmos.tx.v1beta1.ServiceOuterClass.BroadcastTxRequest
+import cosmos.tx.v1beta1.ServiceOuterClass.BroadcastTxResponse
+import cosmos.tx.v1beta1.TxOuterClass.AuthInfo
+import cosmos.tx.v1beta1.TxOuterClass.TxBody
+import cosmos.tx.v1beta1.TxOuterClass.TxRaw
+
+import io.grpc.ManagedChannel
+import io.grpc.Server
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.inprocess.InProcessServerBuilder
+
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.Assertions.*
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class TxSubmitterTest {
+    val mnemonic = "mind flame tobacco sense move hammer drift crime ring globe art gaze cinnamon helmet cruise special produce notable negative wait path scrap recall have"
+    val hdWallet = HDWallet.loadFromMnemonic(mnemonic)
+    val aliceKey = hdWallet.getKeyWallet(0)
+    val bobKey = hdWallet.getKeyWallet(1)
+
+    val chainId = "sim"
+    val accountNumber = 12L
+
+    // an in-process stand-in of a node, checking the signature and the sequence of the txs in the order they arrive
+    inner class FakeTxService(var sequence: Long, private val latency: Long) :
+        ServiceGrpcKt.ServiceCoroutineImplBase(Dispatchers.Unconfined) {
+        val received = AtomicInteger()
+        val inFlight = AtomicInteger()
+        val maxInFlight = AtomicInteger()
+
+        override suspend fun broadcastTx(request: BroadcastTxRequest): BroadcastTxResponse {
+            received.incrementAndGet()
+            val response = checkTx(TxRaw.parseFrom(request.txBytes))
+
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), ::maxOf)
+            delay(latency)
+            inFlight.decrementAndGet()
+            return cosmos.tx.v1beta1.broadcastTxResponse { txResponse = response }
+        }
+
+        @Synchronized
+        private fun checkTx(txRaw: TxRaw): TxResponse {
+            if (!Tx.verify(txRaw, chainId, listOf(accountNumber))) {
+                return cosmos.base.abci.v1beta1.txResponse { codespace = "sdk"; code = 4; rawLog = "unauthorized" }
+            }
+            val txSequence = AuthInfo.parseFrom(txRaw.authInfoBytes).getSignerInfos(0).sequence
+            if (txSequence != sequence) {
+                return cosmos.base.abci.v1beta1.txResponse {
+                    codespace = "sdk"
+                    code = 32
+                    rawLog = "account sequence mismatch, expected $sequence, got $txSequence: incorrect account sequence"
+                }
+            }
+            if (TxBody.parseFrom(txRaw.bodyBytes).memo == "reject") {
+                return cosmos.base.abci.v1beta1.txResponse { codespace = "sdk"; code = 5; rawLog = "insufficient funds" }
+            }
+            sequence++
+            return cosmos.base.abci.v1beta1.txResponse { txhash = "$txSequence" }
+        }
+    }
+
+    // a remote signer taking 5 ms per round trip, however many messages it signs
+    class SlowSigner(private val key: KeyWallet) : AsyncWallet {
+        val roundTrips = AtomicInteger()
+        val signatures = AtomicInteger()
+
+        override val pubKey get() = key.pubKey
+
+        override suspend fun signCompact(message: ByteArray) = signCompactBatch(listOf(message)).single()
+
+        override suspend fun signCompactBatch(messages: List<ByteArray>): List<ByteArray> {
+            roundTrips.incrementAndGet()
+            signatures.addAndGet(messages.size)
+            delay(5)
+            return messages.map { key.signCompact(it) }
+        }
+    }
+
+    private lateinit var server: Server
+    private lateinit var channel: ManagedChannel
+
+    private fun start(service: FakeTxService) {
+        val name = InProcessServerBuilder.generateName()
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(service).build().start()
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build()
+    }
+
+    @AfterEach fun shutdown() {
+        if (::channel.isInitialized) channel.shutdownNow()
+        if (::server.isInitialized) server.shutdownNow()
+    }
+
+    private fun newSubmitter(sequence: Long, maxInFlight: Int = 8, maxResyncs: Int = 3) = TxSubmitter(
+        ServiceGrpcKt.ServiceCoroutineStub(channel), chainId, aliceKey.asAsyncWallet(), accountNumber, sequence,
+        maxInFlight, maxResyncs,
+    )
+
+    private val messages = listOf(com.google.protobuf.any {
+        typeUrl = "/cosmos.bank.v1beta1.MsgSend"
+        value = cosmos.bank.v1beta1.msgSend {
+            fromAddress = aliceKey.address.toBech32("link")
+            toAddress = bobKey.address.toBech32("link")
+        }.toByteString()
+    })
+    private val fee = cosmos.tx.v1beta1.fee { gasLimit = 100000 }
+
+    @Test fun pipeline() = runBlocking<Unit> {
+        val service = FakeTxService(7, latency = 20)
+        start(service)
+
+        newSubmitter(7).use { submitter ->
+            val responses = (0 until 40).map { async { submitter.submit(messages, fee) } }.awaitAll()
+
+            assertTrue(responses.all { it.code == 0 })
+            assertEquals((7L until 47L).map { "$it" }.toSet(), responses.map { it.txhash }.toSet())
+            assertEquals(47, service.sequence)
+            assertEquals(47, submitter.nextSequence)
+            assertEquals(40, service.received.get(), "no tx must be sent again")
+            assertTrue(service.maxInFlight.get() in 2..8, "the txs must be pipelined within the window")
+        }
+    }
+
+    @Test fun batchSigning() = runBlocking<Unit> {
+        val service = FakeTxService(0, latency = 20)
+        start(service)
+        val signer = SlowSigner(aliceKey)
+
+        TxSubmitter(ServiceGrpcKt.ServiceCoroutineStub(channel), chainId, signer, accountNumber, 0, 16).use { submitter ->
+            val responses = (0 until 64).map { async { submitter.submit(messages, fee) } }.awaitAll()
+
+            assertTrue(responses.all { it.code == 0 })
+            assertEquals(64, service.sequence)
+            assertEquals(64, signer.signatures.get())
+            assertTrue(signer.roundTrips.get() < 64, "more than one tx must be signed per round trip")
+        }
+    }
+
+    @Test fun resync() = runBlocking<Unit> {
+        val service = FakeTxService(5, latency = 5)
+        start(service)
+
+        newSubmitter(0).use { submitter ->
+            val responses = (0 until 10).map { async { submitter.submit(messages, fee) } }.awaitAll()
+
+            assertTrue(responses.all { it.code == 0 })
+            assertEquals(15, service.sequence)
+            assertEquals(15, submitter.nextSequence)
+        }
+    }
+
+    @Test fun resyncLimit() = runBlocking<Unit> {
+        start(FakeTxService(5, latency = 0))
+
+        newSubmitter(0, maxResyncs = 0).use { submitter ->
+            val response = submitter.submit(messages, fee)
+
+            assertEquals(32, response.code)
+            assertEquals(5L, TxSubmitter.expectedSequence(response))
+            assertEquals(5, submitter.nextSequence)
+        }
+    }
+
+    @Test fun rejectedTx() = runBlocking<Unit> {
+        val service = FakeTxService(0, latency = 0)
+        start(service)
+
+        newSubmitter(0).use { submitter ->
+            assertEquals(5, submitter.submit(messages, fee, "reject").code)
+            assertEquals(0, submitter.submit(messages, fee).code)
+
+            assertEquals(2, service.received.get(), "the sequence of a rejected tx must be used again")
+            assertEquals(1, submitter.nextSequence)
+        }
+    }
+
+    @Test fun invalidLimits() {
+        channel = InProcessChannelBuilder.forName(InProcessServerBuilder.generateName()).build()
+        val stub = ServiceGrpcKt.ServiceCoroutineStub(channel)
+        val maxInFlight = assertThrows(IllegalArgumentException::class.java) {
+            TxSubmitter(stub, chainId, aliceKey.asAsyncWallet(), accountNumber, 0, maxInFlight = 0)
+        }
+        assertEquals("maxInFlight must be positive: 0", maxInFlight.message)
+        assertThrows(IllegalArgumentException::class.java) {
+            TxSubmitter(stub, chainId, aliceKey.asAsyncWallet(), accountNumber, 0, maxResyncs = -1)
+        }
+    }
+
+    @Test fun expectedSequence() {
+        val mismatch = cosmos.base.abci.v1beta1.txResponse {
+            codespace = "sdk"
+            code = 32
+            rawLog = "account sequence mismatch, expected 25, got 23: incorrect account sequence"
+        }
+        assertEquals(25L, TxSubmitter.expectedSequence(mismatch))
+        assertNull(TxSubmitter.expectedSequence(mismatch.toBuilder().setCodespace("wasm").build()))
+        assertNull(TxSubmitter.expectedSequence(mismatch.toBuilder().setRawLog("incorrect account sequence").build()))
+        assertNull(TxSubmitter.expectedSequence(cosmos.base.abci.v1beta1.txResponse { code = 0 }))
+    }
+
+    @Test fun close() = runBlocking<Unit> {
+        start(FakeTxService(0, latency = 60_000))
+
+        val submitter = newSubmitter(0)
+        val pending = async { submitter.submit(messages, fee) }
+        delay(100)
+
+        submitter.close()
+
+        assertThrows(CancellationException::class.java) { runBlocking { pending.await() } }
+    }
+}
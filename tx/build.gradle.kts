@@ -10,8 +10,9 @@ val kotlinxVersion = "1.2.0"
 dependencies {
     implementation("org.bitcoinj:bitcoinj-core:$bitcoinjVersion")
     implementation("org.jetbrains.kotlinx:kotlinx-serialization-json:$kotlinxVersion")
+    implementation(libs.kotlinx.coroutines.core)
 
     // Finschia sdk
-    implementation("network.finschia:finschia-kt-crypto:0.2.2")
+    implementation(project(":crypto"))
     implementation("network.finschia:finschia-proto:4.0.0")
 }
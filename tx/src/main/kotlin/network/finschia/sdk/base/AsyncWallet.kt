@@ -0,0 +1,173 @@
+package network.finschia.sdk.base
+
+import network.finschia.sdk.account.Address
+import network.finschia.sdk.account.PubKey
+import network.finschia.sdk.account.Wallet
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.withContext
+
+import java.io.Closeable
+import java.util.concurrent.CancellationException
+
+/**
+ * A wallet whose key may be held outside of the process, e.g. by an HSM or a signing daemon.
+ *
+ * Signing suspends instead of blocking, so many signatures can be requested at the same time.
+ */
+interface AsyncWallet {
+
+    /**
+     * the public key of the wallet
+     */
+    val pubKey: PubKey
+
+    /**
+     * the address corresponding the key of the wallet
+     */
+    val address: Address get() = Address(pubKey)
+
+    /**
+     * Signs the input message without the trailing recovery id
+     *
+     * @param message to sign
+     * @return 64 bytes signature (32 bytes for R + 32 bytes for S)
+     */
+    suspend fun signCompact(message: ByteArray): ByteArray
+
+    /**
+     * Signs the input messages, in one round trip if the signer supports it
+     *
+     * @param messages to sign
+     * @return 64 bytes signatures, in the order of the messages
+     */
+    suspend fun signCompactBatch(messages: List<ByteArray>): List<ByteArray> = coroutineScope {
+        messages.map { async { signCompact(it) } }.awaitAll()
+    }
+}
+
+/**
+ * Returns an [AsyncWallet] signing with this wallet on [Dispatchers.Default].
+ */
+fun Wallet.asAsyncWallet(): AsyncWallet = LocalAsyncWallet(this)
+
+private class LocalAsyncWallet(private val wallet: Wallet) : AsyncWallet {
+    override val pubKey get() = wallet.pubKey
+    override val address get() = wallet.address
+
+    override suspend fun signCompact(message: ByteArray) =
+        withContext(Dispatchers.Default) { wallet.signCompact(message) }
+
+    override suspend fun signCompactBatch(messages: List<ByteArray>) =
+        withContext(Dispatchers.Default) { messages.map { wallet.signCompact(it) } }
+}
+
+/**
+ * An [AsyncWallet] sending the signing requests to a remote signer in batches.
+ *
+ * Concurrent [signCompact] calls are queued and sent together through [signBatch], up to [maxBatchSize]
+ * messages per batch. Up to [maxInFlight] batches are pipelined, that is sent without waiting for the
+ * previous ones to complete.
+ *
+ * @param pubKey public key of the remote key
+ * @param maxBatchSize the maximum number of messages sent in one batch
+ * @param maxInFlight the maximum number of batches waiting for their signatures
+ * @param signBatch sends the messages to the remote signer and returns the signatures in the same order
+ */
+class BatchingAsyncWallet(
+    override val pubKey: PubKey,
+    private val maxBatchSize: Int = DEFAULT_MAX_BATCH_SIZE,
+    private val maxInFlight: Int = DEFAULT_MAX_IN_FLIGHT,
+    private val signBatch: suspend (List<ByteArray>) -> List<ByteArray>,
+) : AsyncWallet, Closeable {
+    private class Request(val message: ByteArray, val signature: CompletableDeferred<ByteArray>)
+
+    init {
+        // checked before the semaphore is built with maxInFlight
+        require(maxBatchSize > 0) { "maxBatchSize must be positive: $maxBatchSize" }
+        require(maxInFlight > 0) { "maxInFlight must be positive: $maxInFlight" }
+    }
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    // the requests of one call are queued together, so that they are sent in the same batch
+    private val requests = Channel<List<Request>>(Channel.UNLIMITED)
+    private val inFlight = Semaphore(maxInFlight)
+
+    init {
+        scope.launch { dispatch() }
+    }
+
+    override suspend fun signCompact(message: ByteArray): ByteArray {
+        val request = Request(message, CompletableDeferred())
+        requests.send(listOf(request))
+        return request.signature.await()
+    }
+
+    override suspend fun signCompactBatch(messages: List<ByteArray>): List<ByteArray> {
+        val batch = messages.map { Request(it, CompletableDeferred()) }
+        requests.send(batch)
+        return batch.map { it.signature.await() }
+    }
+
+    private suspend fun dispatch() {
+        val pending = ArrayDeque<Request>()
+        while (true) {
+            if (pending.isEmpty()) pending += requests.receiveCatching().getOrNull() ?: return
+            while (pending.size < maxBatchSize) {
+                pending += requests.tryReceive().getOrNull() ?: break
+            }
+            val batch = List(minOf(pending.size, maxBatchSize)) { pending.removeFirst() }
+
+            try {
+                inFlight.acquire()
+            } catch (e: CancellationException) {
+                batch.forEach { it.signature.cancel() }
+                pending.forEach { it.signature.cancel() }
+                throw e
+            }
+            scope.launch {
+                try {
+                    val signatures = signBatch(batch.map { it.message })
+                    check(signatures.size == batch.size) {
+                        "The signer returned ${signatures.size} signatures for ${batch.size} messages"
+                    }
+                    batch.forEachIndexed { index, request -> request.signature.complete(signatures[index]) }
+                } catch (e: Throwable) {
+                    batch.forEach { it.signature.completeExceptionally(e) }
+                } finally {
+                    inFlight.release()
+                }
+            }.invokeOnCompletion { cause ->
+                // the batch is not sent at all if the wallet is closed before
+                if (cause != null) batch.forEach { it.signature.completeExceptionally(cause) }
+            }
+        }
+    }
+
+    /**
+     * Stops sending the requests, failing the ones waiting for their signatures.
+     */
+    override fun close() {
+        requests.close()
+        scope.cancel(CancellationException("The wallet is closed"))
+        while (true) {
+            val batch = requests.tryReceive().getOrNull() ?: break
+            batch.forEach { it.signature.cancel() }
+        }
+    }
+
+    companion object {
+        const val DEFAULT_MAX_BATCH_SIZE = 256
+        const val DEFAULT_MAX_IN_FLIGHT = 4
+    }
+}
@@ -0,0 +1,94 @@
+package network.finschia.sdk.base
+
+import com.google.protobuf.ByteString
+import com.google.protobuf.CodedOutputStream
+import com.google.protobuf.WireFormat
+import cosmos.tx.v1beta1.TxOuterClass.AuthInfo
+import cosmos.tx.v1beta1.TxOuterClass.SignDoc
+import cosmos.tx.v1beta1.TxOuterClass.SignerInfo
+
+/**
+ * Sign docs of txs that share the chain id, the signers and the fee, and only differ in their bodies and the
+ * sequences of the signers, e.g. the same kind of message sent repeatedly from the same accounts.
+ *
+ * The signer infos without their sequences and the rest of the auth info are encoded once. The sequences,
+ * the body and the account number are then written into an array of the exact size, with the same bytes as
+ * [SignDoc.toByteArray].
+ */
+class SignDocTemplate(chainId: String, authInfo: AuthInfo) {
+    private val chainIdBytes = ByteString.copyFromUtf8(chainId)
+
+    // the sequence is the last field of a signer info, and the signer infos are the first field of an auth info
+    private val signerInfoHeads = authInfo.signerInfosList.map { it.toBuilder().clearSequence().build().toByteArray() }
+    private val authInfoTail = authInfo.toBuilder().clearSignerInfos().build().toByteArray()
+
+    /**
+     * The number of signers, which is the number of sequences to give
+     */
+    val signerCount get() = signerInfoHeads.size
+
+    /**
+     * Returns the encoded auth info with the given [sequences] of the signers.
+     */
+    fun authInfoBytes(vararg sequences: Long): ByteArray {
+        require(sequences.size == signerInfoHeads.size) {
+            "The number of sequences(${sequences.size}) must be the same as signers(${signerInfoHeads.size})"
+        }
+        var size = authInfoTail.size
+        for (i in sequences.indices) {
+            val signerInfoSize = signerInfoSize(i, sequences[i])
+            size += CodedOutputStream.computeTagSize(AuthInfo.SIGNER_INFOS_FIELD_NUMBER) +
+                CodedOutputStream.computeUInt32SizeNoTag(signerInfoSize) + signerInfoSize
+        }
+
+        val out = ByteArray(size)
+        val coded = CodedOutputStream.newInstance(out)
+        for (i in sequences.indices) {
+            coded.writeTag(AuthInfo.SIGNER_INFOS_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED)
+            coded.writeUInt32NoTag(signerInfoSize(i, sequences[i]))
+            coded.writeRawBytes(signerInfoHeads[i])
+            if (sequences[i] != 0L) {
+                coded.writeUInt64(SignerInfo.SEQUENCE_FIELD_NUMBER, sequences[i])
+            }
+        }
+        coded.writeRawBytes(authInfoTail)
+        coded.checkNoSpaceLeft()
+        return out
+    }
+
+    /**
+     * Returns the encoded sign doc of [bodyBytes] and [authInfoBytes] for the signer with [accountNumber].
+     */
+    fun signDocBytes(bodyBytes: ByteString, authInfoBytes: ByteArray, accountNumber: Long): ByteArray {
+        // fields with default values are not encoded, as protobuf does
+        var size = 0
+        if (!bodyBytes.isEmpty) size += CodedOutputStream.computeBytesSize(SignDoc.BODY_BYTES_FIELD_NUMBER, bodyBytes)
+        if (authInfoBytes.isNotEmpty()) {
+            size += CodedOutputStream.computeByteArraySize(SignDoc.AUTH_INFO_BYTES_FIELD_NUMBER, authInfoBytes)
+        }
+        if (!chainIdBytes.isEmpty) size += CodedOutputStream.computeBytesSize(SignDoc.CHAIN_ID_FIELD_NUMBER, chainIdBytes)
+        if (accountNumber != 0L) size += CodedOutputStream.computeUInt64Size(SignDoc.ACCOUNT_NUMBER_FIELD_NUMBER, accountNumber)
+
+        val out = ByteArray(size)
+        val coded = CodedOutputStream.newInstance(out)
+        if (!bodyBytes.isEmpty) coded.writeBytes(SignDoc.BODY_BYTES_FIELD_NUMBER, bodyBytes)
+        if (authInfoBytes.isNotEmpty()) coded.writeByteArray(SignDoc.AUTH_INFO_BYTES_FIELD_NUMBER, authInfoBytes)
+        if (!chainIdBytes.isEmpty) coded.writeBytes(SignDoc.CHAIN_ID_FIELD_NUMBER, chainIdBytes)
+        if (accountNumber != 0L) coded.writeUInt64(SignDoc.ACCOUNT_NUMBER_FIELD_NUMBER, accountNumber)
+        coded.checkNoSpaceLeft()
+        return out
+    }
+
+    /**
+     * Returns the encoded sign doc of [bodyBytes] with the given [sequences] of the signers, for the signer with
+     * [accountNumber].
+     */
+    fun signDocBytes(bodyBytes: ByteString, accountNumber: Long, vararg sequences: Long): ByteArray =
+        signDocBytes(bodyBytes, authInfoBytes(*sequences), accountNumber)
+
+    private fun signerInfoSize(index: Int, sequence: Long): Int {
+        val sequenceSize = if (sequence == 0L) 0 else
+            CodedOutputStream.computeUInt64Size(SignerInfo.SEQUENCE_FIELD_NUMBER, sequence)
+        return signerInfoHeads[index].size + sequenceSize
+    }
+}
@@ -2,6 +2,8 @@ package network.finschia.sdk.base
 
 import network.finschia.sdk.account.Wallet
 import network.finschia.sdk.account.KeyWallet
+import network.finschia.sdk.common.HexCodec
+import network.finschia.sdk.crypto.Secp256k1Verifier
 
 import cosmos.crypto.secp256k1.Keys.PubKey
 import cosmos.tx.signing.v1beta1.Signing.SignMode
@@ -15,7 +17,13 @@ import cosmos.tx.v1beta1.TxOuterClass.Fee
 import cosmos.tx.v1beta1.TxOuterClass.TxRaw
 
 import org.bouncycastle.jcajce.provider.digest.SHA256
-import org.bouncycastle.util.encoders.Hex
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+
+import java.util.concurrent.ConcurrentHashMap
 
 class Tx(
     private val chainId: String,
@@ -23,33 +31,150 @@ class Tx(
     private val authInfo: AuthInfo,
     private val pubKeys: List<ByteString>,
 ) {
-    private var signatures = HashMap<ByteString, ByteString>()
-
-    fun raw() = TxRaw.newBuilder()
-        .setBodyBytes(txBody.toByteString())
-        .setAuthInfoBytes(authInfo.toByteString())
+    // guarded by this tx, together with the cached raw and hash
+    private val signatures = HashMap<ByteString, ByteString>()
+
+    // the body and the auth info never change, so they are encoded once
+    private val bodyBytes by lazy { txBody.toByteString() }
+    private val authInfoBytes by lazy { authInfo.toByteString() }
+    private val signDocDigests = ConcurrentHashMap<Long, ByteArray>()
+
+    // cleared whenever a signature changes
+    private var cachedRaw: TxRaw? = null
+    private var cachedHash: String? = null
+
+    @Synchronized
+    fun raw() = cachedRaw ?: TxRaw.newBuilder()
+        .setBodyBytes(bodyBytes)
+        .setAuthInfoBytes(authInfoBytes)
         .addAllSignatures(pubKeys.map { signatures[it] })
         .build()
+        .also { cachedRaw = it }
 
-    fun hash() = Hex.toHexString(SHA256.Digest().digest(raw().toByteArray())).uppercase()
+    @Synchronized
+    fun hash() = cachedHash ?: HexCodec.encode(SHA256.Digest().digest(raw().toByteArray()), upperCase = true)
+        .also { cachedHash = it }
 
     fun signDoc(cosmosAccountNumber: Long) = cosmos.tx.v1beta1.signDoc {
         chainId = this@Tx.chainId
-        bodyBytes = txBody.toByteString()
-        authInfoBytes = authInfo.toByteString()
+        bodyBytes = this@Tx.bodyBytes
+        authInfoBytes = this@Tx.authInfoBytes
         accountNumber = cosmosAccountNumber
     }
 
+    private fun signDocDigest(cosmosAccountNumber: Long) = signDocDigests.computeIfAbsent(cosmosAccountNumber) {
+        SHA256.Digest().digest(signDoc(it).toByteArray())
+    }
+
+    /**
+     * Returns a template of the sign docs of txs with the same chain id, signers and fee as this tx,
+     * which only differ in their bodies and the sequences of the signers.
+     */
+    fun signDocTemplate() = SignDocTemplate(chainId, authInfo)
+
     fun sign(wallet: Wallet, cosmosAccountNumber: Long) {
         val pubKey = ByteString.copyFrom(wallet.pubKey.body)
         if (pubKey in pubKeys) {
-            val sig = wallet.sign(SHA256.Digest().digest(signDoc(cosmosAccountNumber).toByteArray()))
-            signatures[pubKey] = ByteString.copyFrom(sig.copyOfRange(0, 64))
+            putSignature(pubKey, wallet.signCompact(signDocDigest(cosmosAccountNumber)))
+        }
+    }
+
+    /**
+     * Signs the tx with every wallet and its account number, computing the signatures in parallel on the
+     * [dispatcher]. Each distinct sign doc is hashed once, and wallets which are not signers of the tx are ignored.
+     *
+     * @param signers wallets and their account numbers
+     * @param dispatcher dispatcher computing the signatures
+     */
+    suspend fun signAll(signers: List<Pair<Wallet, Long>>, dispatcher: CoroutineDispatcher = Dispatchers.Default) =
+        coroutineScope {
+            signers.forEach { (wallet, cosmosAccountNumber) -> launch(dispatcher) { sign(wallet, cosmosAccountNumber) } }
+        }
+
+    /**
+     * Signs the tx with the [wallet], if it is a signer of the tx.
+     */
+    suspend fun sign(wallet: AsyncWallet, cosmosAccountNumber: Long) {
+        val pubKey = ByteString.copyFrom(wallet.pubKey.body)
+        if (pubKey in pubKeys) {
+            putSignature(pubKey, wallet.signCompact(signDocDigest(cosmosAccountNumber)))
+        }
+    }
+
+    /**
+     * Signs the tx with every wallet and its account number, requesting all the signatures at the same time.
+     * Wallets which are not signers of the tx are ignored.
+     */
+    suspend fun signAll(signers: List<Pair<AsyncWallet, Long>>) = coroutineScope {
+        signers.forEach { (wallet, cosmosAccountNumber) -> launch { sign(wallet, cosmosAccountNumber) } }
+    }
+
+    @Synchronized
+    private fun putSignature(pubKey: ByteString, signature: ByteArray) {
+        val sig = ByteString.copyFrom(signature)
+        if (signatures.put(pubKey, sig) != sig) {
+            cachedRaw = null
+            cachedHash = null
         }
     }
 
     companion object {
+        private const val SECP256K1_PUBKEY_TYPE_URL = "/cosmos.crypto.secp256k1.PubKey"
+
         fun newBuilder() = Builder()
+
+        /**
+         * Signs the [txs] with the [wallet], sending all the messages to sign in one batch.
+         * Txs which the wallet is not a signer of are ignored.
+         *
+         * @param cosmosAccountNumber account number of the wallet
+         */
+        suspend fun signBatch(wallet: AsyncWallet, txs: List<Tx>, cosmosAccountNumber: Long) {
+            val pubKey = ByteString.copyFrom(wallet.pubKey.body)
+            val signed = txs.filter { pubKey in it.pubKeys }
+            val signatures = wallet.signCompactBatch(signed.map { it.signDocDigest(cosmosAccountNumber) })
+            signed.forEachIndexed { index, tx -> tx.putSignature(pubKey, signatures[index]) }
+        }
+
+        /**
+         * Verifies the signatures of every signer of [txRaw] in one batch.
+         * Only single secp256k1 keys signing in SIGN_MODE_DIRECT are supported.
+         *
+         * @param chainId the chain id the tx was signed for
+         * @param accountNumbers account numbers of the signers, in the order of the signer infos
+         * @return true if all the signatures are valid
+         */
+        fun verify(txRaw: TxRaw, chainId: String, accountNumbers: List<Long>): Boolean {
+            val signerInfos = AuthInfo.parseFrom(txRaw.authInfoBytes).signerInfosList
+            require(signerInfos.size == accountNumbers.size) {
+                "The number of account numbers(${accountNumbers.size}) must be the same as signers(${signerInfos.size})"
+            }
+            if (signerInfos.size != txRaw.signaturesCount) return false
+
+            val pubKeys = signerInfos.map {
+                require(it.publicKey.typeUrl == SECP256K1_PUBKEY_TYPE_URL) {
+                    "Unsupported public key type: ${it.publicKey.typeUrl}"
+                }
+                require(it.modeInfo.hasSingle() && it.modeInfo.single.mode == SignMode.SIGN_MODE_DIRECT) {
+                    "Unsupported sign mode: ${it.modeInfo}"
+                }
+                PubKey.parseFrom(it.publicKey.value).key.toByteArray()
+            }
+            val digests = accountNumbers.map {
+                val signDoc = cosmos.tx.v1beta1.signDoc {
+                    this.chainId = chainId
+                    bodyBytes = txRaw.bodyBytes
+                    authInfoBytes = txRaw.authInfoBytes
+                    accountNumber = it
+                }
+                SHA256.Digest().digest(signDoc.toByteArray())
+            }
+            return Secp256k1Verifier.verifyAll(
+                pubKeys.toTypedArray(),
+                digests.toTypedArray(),
+                txRaw.signaturesList.map { it.toByteArray() }.toTypedArray(),
+            )
+        }
     }
     class Builder {
         private var chainId = ""
@@ -68,8 +193,12 @@ class Tx(
         fun addMessage(msg: Any) = this.apply {
             txBodyBuilder.addMessages(msg)
         }
-        fun addSigner(wallet: KeyWallet, sequence: Long) = this.apply {
-            val pubKey = ByteString.copyFrom(wallet.pubKey.body)
+        fun addSigner(wallet: KeyWallet, sequence: Long) = addSigner(wallet.pubKey, sequence)
+
+        fun addSigner(wallet: AsyncWallet, sequence: Long) = addSigner(wallet.pubKey, sequence)
+
+        fun addSigner(signerPubKey: network.finschia.sdk.account.PubKey, sequence: Long) = this.apply {
+            val pubKey = ByteString.copyFrom(signerPubKey.body)
             if (pubKey !in pubKeys) {
                 pubKeys.add(pubKey)
 
@@ -77,7 +206,7 @@ class Tx(
                     .setKey(pubKey)
                     .build()
                 val anyKey = com.google.protobuf.any {
-                    typeUrl = "/cosmos.crypto.secp256k1.PubKey"
+                    typeUrl = SECP256K1_PUBKEY_TYPE_URL
                     value = cryptoPubKey.toByteString()
                 }
 
@@ -0,0 +1,402 @@
+package network.finschia.sdk.legacymultisig
+
+import kotlinx.serialization.ExperimentalSerializationApi
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.SerializationStrategy
+import kotlinx.serialization.descriptors.SerialDescriptor
+import kotlinx.serialization.descriptors.StructureKind
+import kotlinx.serialization.encoding.AbstractEncoder
+import kotlinx.serialization.encoding.CompositeEncoder
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.JsonArray
+import kotlinx.serialization.json.JsonElement
+import kotlinx.serialization.json.JsonEncoder
+import kotlinx.serialization.json.JsonNull
+import kotlinx.serialization.json.JsonObject
+import kotlinx.serialization.json.JsonPrimitive
+import kotlinx.serialization.modules.SerializersModule
+import org.bouncycastle.jcajce.provider.digest.SHA256
+import java.io.ByteArrayOutputStream
+import java.io.OutputStream
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Canonical JSON of amino sign docs: object keys are sorted and null values are omitted, the same as
+ * `Json.encodeToJsonElement(value).removeNull().sort().toString()`.
+ *
+ * The UTF-8 bytes are written straight into the output without building a [JsonElement] tree. The fields of
+ * a class are written in the order of their sorted names, which is computed once per class, and a field is
+ * only buffered when it is serialized before another field whose name sorts first.
+ */
+@OptIn(ExperimentalSerializationApi::class)
+class CanonicalJson(private val json: Json = Json) {
+
+    fun <T> encodeToStream(serializer: SerializationStrategy<T>, value: T, out: OutputStream) {
+        CanonicalJsonEncoder(json, out).encodeSerializableValue(serializer, value)
+    }
+
+    fun <T> encodeToByteArray(serializer: SerializationStrategy<T>, value: T): ByteArray =
+        ByteArrayOutputStream().also { encodeToStream(serializer, value, it) }.toByteArray()
+
+    fun <T> encodeToString(serializer: SerializationStrategy<T>, value: T): String =
+        String(encodeToByteArray(serializer, value), Charsets.UTF_8)
+
+    /**
+     * Returns the SHA-256 hash of the canonical JSON, streaming the JSON into the digest.
+     */
+    fun <T> sha256(serializer: SerializationStrategy<T>, value: T): ByteArray {
+        val digest = SHA256.Digest()
+        encodeToStream(serializer, value, DigestOutputStream(digest))
+        return digest.digest()
+    }
+}
+
+private class DigestOutputStream(private val digest: MessageDigest) : OutputStream() {
+    override fun write(b: Int) = digest.update(b.toByte())
+    override fun write(b: ByteArray, off: Int, len: Int) = digest.update(b, off, len)
+}
+
+@OptIn(ExperimentalSerializationApi::class)
+private class CanonicalJsonEncoder(
+    override val json: Json,
+    private val root: OutputStream,
+) : AbstractEncoder(), JsonEncoder {
+    override val serializersModule: SerializersModule = json.serializersModule
+
+    private var frame: Frame? = null
+
+    override fun shouldEncodeElementDefault(descriptor: SerialDescriptor, index: Int): Boolean =
+        json.configuration.encodeDefaults
+
+    override fun encodeElement(descriptor: SerialDescriptor, index: Int): Boolean {
+        frame!!.beginElement(index)
+        return true
+    }
+
+    override fun beginStructure(descriptor: SerialDescriptor): CompositeEncoder {
+        val out = beginValue()
+        frame = when (descriptor.kind) {
+            StructureKind.LIST -> ListFrame(frame, out)
+            StructureKind.MAP -> MapFrame(frame, out)
+            StructureKind.CLASS, StructureKind.OBJECT -> ClassFrame(frame, out, descriptor)
+            else -> throw SerializationException("${descriptor.kind} is not supported in canonical JSON")
+        }
+        return this
+    }
+
+    override fun endStructure(descriptor: SerialDescriptor) {
+        val current = frame!!
+        current.end()
+        frame = current.parent
+    }
+
+    // omitting the value omits its key or array slot as well
+    override fun encodeNull() {
+        if (frame == null) {
+            error("unexpected token")
+        }
+    }
+
+    override fun encodeBoolean(value: Boolean) = writeLiteral(value.toString())
+    override fun encodeByte(value: Byte) = writeLiteral(value.toString())
+    override fun encodeShort(value: Short) = writeLiteral(value.toString())
+    override fun encodeInt(value: Int) = writeLiteral(value.toString())
+    override fun encodeLong(value: Long) = writeLiteral(value.toString())
+    override fun encodeFloat(value: Float) = writeLiteral(checkFinite(value.isFinite(), value.toString()))
+    override fun encodeDouble(value: Double) = writeLiteral(checkFinite(value.isFinite(), value.toString()))
+    override fun encodeChar(value: Char) = writeString(value.toString())
+    override fun encodeString(value: String) = writeString(value)
+    override fun encodeEnum(enumDescriptor: SerialDescriptor, index: Int) =
+        writeString(enumDescriptor.getElementName(index))
+
+    override fun encodeJsonElement(element: JsonElement) {
+        when (element) {
+            is JsonNull -> encodeNull()
+            is JsonPrimitive -> if (element.isString) writeString(element.content) else writeLiteral(element.content)
+            is JsonArray -> {
+                val out = beginValue()
+                frame = ListFrame(frame, out)
+                element.forEachIndexed { index, it ->
+                    frame!!.beginElement(index)
+                    encodeJsonElement(it)
+                }
+                endStructure(JsonArray.serializer().descriptor)
+            }
+            is JsonObject -> {
+                val out = beginValue()
+                frame = ClassFrame(frame, out, null)
+                val keys = element.keys.sorted()
+                keys.forEachIndexed { index, key ->
+                    (frame as ClassFrame).beginElement(index, key)
+                    encodeJsonElement(element.getValue(key))
+                }
+                endStructure(JsonObject.serializer().descriptor)
+            }
+        }
+    }
+
+    private fun checkFinite(finite: Boolean, value: String): String {
+        if (!finite) {
+            throw SerializationException("$value is not allowed in canonical JSON")
+        }
+        return value
+    }
+
+    private fun beginValue(): OutputStream = frame?.beginValue() ?: root
+
+    private fun writeLiteral(value: String) {
+        val current = frame
+        if (current is MapFrame && current.expectsKey) {
+            current.key = value
+            return
+        }
+        val out = beginValue()
+        for (c in value) {
+            out.write(c.code)
+        }
+    }
+
+    private fun writeString(value: String) {
+        val current = frame
+        if (current is MapFrame && current.expectsKey) {
+            current.key = value
+            return
+        }
+        writeQuoted(beginValue(), value)
+    }
+}
+
+private val rankCache = ConcurrentHashMap<SerialDescriptor, IntArray>()
+
+// rank of each element in the order of the sorted element names
+private fun sortedRanks(descriptor: SerialDescriptor): IntArray = rankCache.getOrPut(descriptor) {
+    val ranks = IntArray(descriptor.elementsCount)
+    (0 until descriptor.elementsCount)
+        .sortedBy { descriptor.getElementName(it) }
+        .forEachIndexed { rank, index -> ranks[index] = rank }
+    ranks
+}
+
+private abstract class Frame(val parent: Frame?, protected val out: OutputStream) {
+    abstract fun beginElement(index: Int)
+
+    /**
+     * Writes the separator and the key of the current element, and returns where its value goes.
+     */
+    abstract fun beginValue(): OutputStream
+
+    abstract fun end()
+}
+
+private class ListFrame(parent: Frame?, out: OutputStream) : Frame(parent, out) {
+    private var pending = false
+    private var written = false
+
+    init {
+        out.write('['.code)
+    }
+
+    override fun beginElement(index: Int) {
+        pending = true
+    }
+
+    override fun beginValue(): OutputStream {
+        if (pending) {
+            if (written) out.write(','.code)
+            written = true
+            pending = false
+        }
+        return out
+    }
+
+    override fun end() = out.write(']'.code)
+}
+
+/**
+ * Object whose fields are written in the order of their sorted names, or in the order they come when there
+ * is no [descriptor].
+ */
+private class ClassFrame(
+    parent: Frame?,
+    out: OutputStream,
+    private val descriptor: SerialDescriptor?,
+) : Frame(parent, out) {
+    private val ranks = descriptor?.let { sortedRanks(it) }
+    private val segments = arrayOfNulls<ByteArrayOutputStream>(ranks?.size ?: 0)
+    private val done = BooleanArray(ranks?.size ?: 0)
+    private var nextRank = 0
+    private var current = -1
+    private var currentKey = ""
+    private var buffer: ByteArrayOutputStream? = null
+    private var keyWritten = false
+    private var written = false
+
+    init {
+        out.write('{'.code)
+    }
+
+    override fun beginElement(index: Int) = beginElement(index, descriptor!!.getElementName(index))
+
+    fun beginElement(index: Int, key: String) {
+        finishElement()
+        current = ranks?.get(index) ?: nextRank
+        currentKey = key
+        keyWritten = false
+        buffer = if (current == nextRank) null else ByteArrayOutputStream()
+    }
+
+    override fun beginValue(): OutputStream {
+        val target = buffer
+        if (!keyWritten) {
+            keyWritten = true
+            if (target == null) {
+                separate()
+                writeQuoted(out, currentKey)
+                out.write(':'.code)
+            } else {
+                writeQuoted(target, currentKey)
+                target.write(':'.code)
+            }
+        }
+        return target ?: out
+    }
+
+    private fun separate() {
+        if (written) out.write(','.code)
+        written = true
+    }
+
+    private fun finishElement() {
+        if (current < 0) return
+        val target = buffer
+        if (current >= done.size) {
+            // fields of a json object always come in order
+            nextRank++
+        } else {
+            done[current] = true
+            if (target != null && keyWritten) segments[current] = target
+            while (nextRank < done.size && done[nextRank]) {
+                flush(nextRank++)
+            }
+        }
+        buffer = null
+        current = -1
+    }
+
+    private fun flush(rank: Int) {
+        val segment = segments[rank] ?: return
+        segments[rank] = null
+        separate()
+        segment.writeTo(out)
+    }
+
+    override fun end() {
+        finishElement()
+        for (rank in nextRank until segments.size) {
+            flush(rank)
+        }
+        out.write('}'.code)
+    }
+}
+
+private class MapFrame(parent: Frame?, out: OutputStream) : Frame(parent, out) {
+    private val entries = mutableListOf<Pair<String, ByteArrayOutputStream>>()
+    private var buffer: ByteArrayOutputStream? = null
+    var expectsKey = false
+        private set
+    var key: String? = null
+        set(value) {
+            field = value
+            expectsKey = false
+        }
+
+    override fun beginElement(index: Int) {
+        finishEntry()
+        expectsKey = index % 2 == 0
+        if (!expectsKey) {
+            buffer = ByteArrayOutputStream()
+        }
+    }
+
+    override fun beginValue(): OutputStream {
+        if (expectsKey) {
+            throw SerializationException("Map keys must be primitives in canonical JSON")
+        }
+        return buffer!!
+    }
+
+    private fun finishEntry() {
+        val target = buffer ?: return
+        // a null value leaves the buffer empty
+        if (target.size() > 0) {
+            entries += key!! to target
+        }
+        buffer = null
+    }
+
+    override fun end() {
+        finishEntry()
+        out.write('{'.code)
+        entries.sortedBy { it.first }.forEachIndexed { index, (key, value) ->
+            if (index > 0) out.write(','.code)
+            writeQuoted(out, key)
+            out.write(':'.code)
+            value.writeTo(out)
+        }
+        out.write('}'.code)
+    }
+}
+
+/**
+ * Writes the string quoted and escaped as kotlinx-serialization does, encoded in UTF-8.
+ */
+private fun writeQuoted(out: OutputStream, value: String) {
+    out.write('"'.code)
+    var i = 0
+    while (i < value.length) {
+        val c = value[i]
+        when {
+            c == '"' || c == '\\' -> {
+                out.write('\\'.code)
+                out.write(c.code)
+            }
+            c < ' ' -> writeControl(out, c)
+            c.code < 0x80 -> out.write(c.code)
+            c.code < 0x800 -> {
+                out.write(0xc0 or (c.code shr 6))
+                out.write(0x80 or (c.code and 0x3f))
+            }
+            Character.isHighSurrogate(c) && i + 1 < value.length && Character.isLowSurrogate(value[i + 1]) -> {
+                val codePoint = Character.toCodePoint(c, value[++i])
+                out.write(0xf0 or (codePoint shr 18))
+                out.write(0x80 or ((codePoint shr 12) and 0x3f))
+                out.write(0x80 or ((codePoint shr 6) and 0x3f))
+                out.write(0x80 or (codePoint and 0x3f))
+            }
+            // an unpaired surrogate is replaced the same as String.toByteArray()
+            Character.isSurrogate(c) -> out.write('?'.code)
+            else -> {
+                out.write(0xe0 or (c.code shr 12))
+                out.write(0x80 or ((c.code shr 6) and 0x3f))
+                out.write(0x80 or (c.code and 0x3f))
+            }
+        }
+        i++
+    }
+    out.write('"'.code)
+}
+
+private fun writeControl(out: OutputStream, c: Char) {
+    val escaped = when (c) {
+        '\b' -> "\\b"
+        '\t' -> "\\t"
+        '\n' -> "\\n"
+        '\u000c' -> "\\f"
+        '\r' -> "\\r"
+        else -> "\\u%04x".format(c.code)
+    }
+    for (e in escaped) {
+        out.write(e.code)
+    }
+}
@@ -0,0 +1,129 @@
+package network.finschia.sdk.legacymultisig
+
+import com.google.protobuf.ByteString
+
+/**
+ * A fixed number of bits marking the members of a multisig account which signed, stored in 64 bits words.
+ *
+ * The protobuf form keeps the bits from the most significant bit of the first byte, with the number of bits
+ * used in the last byte, see
+ * https://github.com/cosmos/cosmos-sdk/blob/v0.45.4/crypto/types/compact_bit_array.go
+ *
+ * @property size the number of bits
+ */
+class CompactBitArray(val size: Int) {
+    private val words: LongArray
+
+    init {
+        if (size < 0) error("Invalid size of bit array: $size")
+        words = LongArray((size + 63) ushr 6)
+    }
+
+    operator fun get(index: Int): Boolean {
+        checkIndex(index)
+        return words[index ushr 6] and (1L shl index) != 0L
+    }
+
+    operator fun set(index: Int, value: Boolean) {
+        checkIndex(index)
+        if (value) {
+            words[index ushr 6] = words[index ushr 6] or (1L shl index)
+        } else {
+            words[index ushr 6] = words[index ushr 6] and (1L shl index).inv()
+        }
+    }
+
+    /**
+     * Returns the number of bits set, that is the number of signers.
+     */
+    fun count() = words.sumOf { java.lang.Long.bitCount(it) }
+
+    /**
+     * Returns the index of the first bit set from [fromIndex], or -1 if there is none.
+     */
+    fun nextSetBit(fromIndex: Int): Int {
+        if (fromIndex < 0) error("Invalid index of bit array: $fromIndex")
+        if (fromIndex >= size) return -1
+
+        var wordIndex = fromIndex ushr 6
+        var word = words[wordIndex] and (-1L shl fromIndex)
+        while (word == 0L) {
+            if (++wordIndex == words.size) return -1
+            word = words[wordIndex]
+        }
+        return (wordIndex shl 6) + java.lang.Long.numberOfTrailingZeros(word)
+    }
+
+    /**
+     * Returns the indices of the bits set in ascending order, that is the indices of the signers.
+     */
+    fun signerIndices(): IntArray {
+        val indices = IntArray(count())
+        var index = nextSetBit(0)
+        for (i in indices.indices) {
+            indices[i] = index
+            index = nextSetBit(index + 1)
+        }
+        return indices
+    }
+
+    fun toProto(): cosmos.crypto.multisig.v1beta1.Multisig.CompactBitArray {
+        val bytes = ByteArray((size + 7) ushr 3)
+        var index = nextSetBit(0)
+        while (index >= 0) {
+            bytes[index ushr 3] = (bytes[index ushr 3].toInt() or (0x80 ushr (index and 7))).toByte()
+            index = nextSetBit(index + 1)
+        }
+        return cosmos.crypto.multisig.v1beta1.compactBitArray {
+            this.elems = ByteString.copyFrom(bytes)
+            this.extraBitsStored = size and 7
+        }
+    }
+
+    private fun checkIndex(index: Int) {
+        if (index < 0 || index >= size) error("Index $index out of bit array of size $size")
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as CompactBitArray
+        return size == other.size && words.contentEquals(other.words)
+    }
+
+    override fun hashCode(): Int {
+        return 31 * size + words.contentHashCode()
+    }
+
+    /**
+     * stringifies the bits as `x` for set and `_` for unset, as cosmos-sdk does
+     */
+    override fun toString(): String = String(CharArray(size) { if (get(it)) 'x' else '_' })
+
+    companion object {
+        fun of(bits: List<Boolean>) = CompactBitArray(bits.size).apply {
+            bits.forEachIndexed { index, bit -> if (bit) set(index, true) }
+        }
+
+        fun fromProto(proto: cosmos.crypto.multisig.v1beta1.Multisig.CompactBitArray): CompactBitArray {
+            val byteCount = proto.elems.size()
+            val extraBits = proto.extraBitsStored
+            if (extraBits !in 0..7 || (extraBits > 0 && byteCount == 0)) {
+                error("Invalid compact bit array: $byteCount bytes with $extraBits extra bits")
+            }
+
+            val size = if (extraBits == 0) byteCount * 8 else (byteCount - 1) * 8 + extraBits
+            val bits = CompactBitArray(size)
+            for (i in 0 until byteCount) {
+                val byte = proto.elems.byteAt(i).toInt() and 0xff
+                if (byte == 0) continue
+                for (bit in 0 until 8) {
+                    val index = i * 8 + bit
+                    if (index < size && byte and (0x80 ushr bit) != 0) bits[index] = true
+                }
+            }
+            return bits
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package network.finschia.sdk.legacymultisig
 
+import network.finschia.sdk.crypto.AminoEncoder
 import java.util.Base64
 
 /**
@@ -25,6 +26,7 @@ val pubkeyAminoPrefixEd25519 = fromHex("1624de64" + "20" /* fixed length */)
 // See https://github.com/tendermint/tendermint/commit/38b401657e4ad7a7eeb3c30a3cbf512037df3740diff-c51228ee09e0ee67c26b17e1dc412efbae8d6ecc8acd108c2fe33782240de4ecR56
 val pubkeyAminoPrefixMultisigThreshold = fromHex("22c1f7e2" /* variable length not included */)
 
+@Deprecated("Only encodes numbers up to 127", ReplaceWith("encodeUvarintBytes(value)"))
 fun encodeUvarint(value: String): Byte {
     val checked = value.toInt()
     if (checked > 127) {
@@ -33,29 +35,54 @@ fun encodeUvarint(value: String): Byte {
     return checked.toByte()
 }
 
+/**
+ * Returns the unsigned varint of any non-negative [value], in one or more bytes.
+ */
+fun encodeUvarintBytes(value: String): ByteArray {
+    val checked = value.toLong()
+    if (checked < 0) {
+        error("Encoding negative numbers is not supported: $value")
+    }
+    return AminoEncoder.encodeUvarint(checked)
+}
+
 fun encodeAminoPubkey(pubkey: AminoPubKey<*>): ByteArray {
+    val out = AminoEncoder(estimateAminoPubkeySize(pubkey))
+    writeAminoPubkey(pubkey, out)
+    return out.toByteArray()
+}
+
+private fun writeAminoPubkey(pubkey: AminoPubKey<*>, out: AminoEncoder) {
     if (isMultisigThresholdPubkey(pubkey)) {
         val value = pubkey.value as MultisigThresholdPubkeyValue
-        var out = pubkeyAminoPrefixMultisigThreshold
-        out += 0x08.toByte()
-        out += encodeUvarint(value.threshold)
-        value.pubkeys.map { encodeAminoPubkey(it)}.forEach {
-            out += 0x12.toByte()
-            out += encodeUvarint(it.size.toString())
-            out += it
+        out.writeBytes(pubkeyAminoPrefixMultisigThreshold)
+        out.writeUvarintField(1, value.threshold.toLong())
+        value.pubkeys.forEach {
+            val mark = out.beginField(2)
+            writeAminoPubkey(it, out)
+            out.endField(mark)
         }
-        return out
     } else if (isEd25519Pubkey(pubkey)) {
         val value = pubkey.value as SinglePubkeyValue
-        var out = pubkeyAminoPrefixEd25519
-        out +=  Base64.getDecoder().decode(value)
-        return out
+        out.writeBytes(pubkeyAminoPrefixEd25519)
+        out.writeBytes(Base64.getDecoder().decode(value))
     } else if (isSecp256k1Pubkey(pubkey)) {
         val value = pubkey.value as SinglePubkeyValue
-        var out = pubkeyAminoPrefixSecp256k1
-        out += Base64.getDecoder().decode(value)
-        return out
+        out.writeBytes(pubkeyAminoPrefixSecp256k1)
+        out.writeBytes(Base64.getDecoder().decode(value))
     } else {
         error("Unsupported pubkey type")
     }
 }
+
+// an estimate of the initial capacity: prefix, threshold and 2 bytes of key and length per member, plus the
+// members themselves, which the encoder grows beyond if a threshold or a length takes more bytes
+private fun estimateAminoPubkeySize(pubkey: AminoPubKey<*>): Int =
+    if (isMultisigThresholdPubkey(pubkey)) {
+        val value = pubkey.value as MultisigThresholdPubkeyValue
+        pubkeyAminoPrefixMultisigThreshold.size + 3 + value.pubkeys.sumOf { 2 + estimateAminoPubkeySize(it) }
+    } else if (isEd25519Pubkey(pubkey)) {
+        pubkeyAminoPrefixEd25519.size + 32
+    } else {
+        pubkeyAminoPrefixSecp256k1.size + 33
+    }
@@ -6,20 +6,19 @@ package network.finschia.sdk.legacymultisig
  */
 
 /**
- * Compare arrays lexicographically.
+ * Compare arrays lexicographically, as unsigned bytes.
  *
  * Returns value < 0 if `a < b`.
  * Returns value > 0 if `a > b`.
  * Returns 0 if `a === b`.
  */
 fun compareArrays(a: ByteArray, b: ByteArray): Int {
-    val aHex = toHex(a)
-    val bHex = toHex(b)
-    return when {
-        aHex == bHex -> 0
-        aHex < bHex -> -1
-        else -> 1
+    for (i in 0 until minOf(a.size, b.size)) {
+        val aByte = a[i].toInt() and 0xff
+        val bByte = b[i].toInt() and 0xff
+        if (aByte != bByte) return if (aByte < bByte) -1 else 1
     }
+    return a.size.compareTo(b.size).coerceIn(-1, 1)
 }
 
 /**
@@ -45,9 +44,11 @@ fun createMultisigThresholdPubkey(pubkeys: List<AminoPubKey<SinglePubkeyValue>>,
     if (threshold > pubkeys.size) {
         error("Threshold m = $threshold exceeds number of keys n = ${pubkeys.size}")
     }
-    val outPubkeys = if (nosort) pubkeys else pubkeys.sortedWith { a, b ->
-        compareArrays(pubkeyToRawAddress(a), pubkeyToRawAddress(b))
-    }
+    // the raw addresses are derived once per key, not per comparison
+    val outPubkeys = if (nosort) pubkeys else pubkeys
+        .map { it to pubkeyToRawAddress(it) }
+        .sortedWith { a, b -> compareArrays(a.second, b.second) }
+        .map { it.first }
     return AminoPubKey(
         type = "tendermint/PubKeyMultisigThreshold",
         value = MultisigThresholdPubkeyValue(
@@ -0,0 +1,158 @@
+package network.finschia.sdk.legacymultisig
+
+import com.google.protobuf.ByteString
+import network.finschia.sdk.crypto.AminoEncoder
+import network.finschia.sdk.crypto.Bech32Utils
+import org.bitcoinj.core.Bech32
+import org.bouncycastle.jcajce.provider.digest.SHA256
+import java.util.Base64
+
+/**
+ * A multisig threshold public key of compressed secp256k1 members, holding the raw keys of the members.
+ *
+ * Unlike [AminoPubKey], nothing is decoded again on each use: the `LegacyAminoPubKey` packed in an `Any`, the amino
+ * bytes, the address and the raw addresses of the members are computed once and cached, so assembling many txs of
+ * the same multisig account only looks them up.
+ *
+ * @param threshold the number of signatures required
+ * @param pubkeys 33 bytes compressed keys of the members, in the order of the multisig key
+ */
+class MultisigPubKey(val threshold: Int, pubkeys: List<ByteArray>) {
+    private val keys = pubkeys.map {
+        if (it.size != 33 || (it[0] != 0x02.toByte() && it[0] != 0x03.toByte())) {
+            error("Public key must be compressed secp256k1, i.e. 33 bytes starting with 0x02 or 0x03")
+        }
+        it.copyOf()
+    }
+
+    init {
+        if (threshold <= 0) error("Threshold m = $threshold must be positive")
+        if (threshold > keys.size) error("Threshold m = $threshold exceeds number of keys n = ${keys.size}")
+    }
+
+    val memberCount get() = keys.size
+
+    private val memberIndices by lazy {
+        keys.withIndex().associate { (index, key) -> ByteString.copyFrom(rawSecp256k1PubkeyToRawAddress(key)) to index }
+    }
+
+    /**
+     * The `LegacyAminoPubKey` of the members packed in an `Any`, as signer infos take it
+     */
+    val legacyAminoPubKey: com.google.protobuf.Any by lazy { makeLegacyAminoPubKey(threshold, keys) }
+
+    private val encoded by lazy {
+        val out = AminoEncoder(pubkeyAminoPrefixMultisigThreshold.size + 3 + keys.size * (2 + 38))
+        out.writeBytes(pubkeyAminoPrefixMultisigThreshold)
+        out.writeUvarintField(1, threshold.toLong())
+        keys.forEach {
+            val mark = out.beginField(2)
+            out.writeBytes(pubkeyAminoPrefixSecp256k1)
+            out.writeBytes(it)
+            out.endField(mark)
+        }
+        out.toByteArray()
+    }
+
+    // https://github.com/tendermint/tendermint/blob/38b401657e4ad7a7eeb3c30a3cbf512037df3740/crypto/multisig/threshold_pubkey.go#L71-L74
+    private val encodedRawAddress by lazy { SHA256.Digest().digest(encoded).copyOfRange(0, 20) }
+
+    @Volatile
+    private var bech32Addresses: Map<String, String> = emptyMap()
+
+    /**
+     * The amino bytes of the key, the same as [encodeAminoPubkey] of [toAminoPubKey]
+     */
+    val aminoBytes: ByteArray get() = encoded.copyOf()
+
+    /**
+     * The raw address of the multisig account
+     */
+    val rawAddress: ByteArray get() = encodedRawAddress.copyOf()
+
+    /**
+     * Returns the compressed key of the member at [index].
+     */
+    fun pubkey(index: Int): ByteArray = keys[index].copyOf()
+
+    /**
+     * Returns the bech32 address of the multisig account, computed once per [prefix].
+     */
+    fun toBech32(prefix: String): String {
+        bech32Addresses[prefix]?.let { return it }
+
+        val data = Bech32Utils.convertBits(encodedRawAddress, 0, encodedRawAddress.size, 8, 5, true)
+        val address = Bech32.encode(prefix, data)
+        bech32Addresses = bech32Addresses + (prefix to address)
+        return address
+    }
+
+    /**
+     * Returns the index of the member with [rawAddress], or -1 if it is not a member.
+     */
+    fun indexOf(rawAddress: ByteArray) = memberIndices[ByteString.copyFrom(rawAddress)] ?: -1
+
+    /**
+     * Returns the index of the member with the bech32 [address] of any prefix, or -1 if it is not a member or
+     * [address] is not a bech32 address.
+     */
+    fun indexOf(address: String): Int {
+        val rawAddress = try {
+            val data = Bech32.decode(address).data
+            Bech32Utils.convertBits(data, 0, data.size, 5, 8, false)
+        } catch (e: IllegalArgumentException) {
+            // an AddressFormatException of bitcoinj, or an invalid padding of the data
+            return -1
+        }
+        return indexOf(rawAddress)
+    }
+
+    fun toAminoPubKey() = AminoPubKey(
+        type = "tendermint/PubKeyMultisigThreshold",
+        value = MultisigThresholdPubkeyValue(
+            threshold = threshold.toString(),
+            pubkeys = keys.map { encodeSecp256k1Pubkey(it) },
+        )
+    )
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as MultisigPubKey
+        return threshold == other.threshold && keys.size == other.keys.size &&
+            keys.indices.all { keys[it].contentEquals(other.keys[it]) }
+    }
+
+    override fun hashCode(): Int {
+        return keys.fold(threshold) { hash, key -> 31 * hash + key.contentHashCode() }
+    }
+
+    companion object {
+        /**
+         * Returns the key of the secp256k1 members of [pubkey].
+         */
+        fun fromAminoPubKey(pubkey: AminoPubKey<MultisigThresholdPubkeyValue>): MultisigPubKey {
+            if (!isMultisigThresholdPubkey(pubkey)) error("Unsupported public key type: ${pubkey.type}")
+            return MultisigPubKey(
+                pubkey.value.threshold.toInt(),
+                pubkey.value.pubkeys.map {
+                    if (!isSecp256k1Pubkey(it)) error("Unsupported public key type: ${it.type}")
+                    Base64.getDecoder().decode(it.value)
+                },
+            )
+        }
+
+        /**
+         * Returns the key of the members [pubkeys], sorted by their addresses unless [nosort],
+         * as [createMultisigThresholdPubkey] does.
+         */
+        fun of(pubkeys: List<ByteArray>, threshold: Int, nosort: Boolean = false): MultisigPubKey {
+            val sorted = if (nosort) pubkeys else pubkeys
+                .map { it to rawSecp256k1PubkeyToRawAddress(it) }
+                .sortedWith { a, b -> compareArrays(a.second, b.second) }
+                .map { it.first }
+            return MultisigPubKey(threshold, sorted)
+        }
+    }
+}
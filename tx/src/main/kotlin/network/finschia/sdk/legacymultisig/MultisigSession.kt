@@ -0,0 +1,124 @@
+package network.finschia.sdk.legacymultisig
+
+import com.google.protobuf.ByteString
+import cosmos.tx.v1beta1.TxOuterClass.TxRaw
+import network.finschia.sdk.account.Address
+import network.finschia.sdk.crypto.Secp256k1Verifier
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Collects the signatures of the members of a multisig account on one amino sign doc, and assembles the tx as
+ * soon as the threshold is reached.
+ *
+ * The public keys and the raw addresses of the members are decoded once by [MultisigPubKey], so a signature is matched
+ * to its member with one lookup. Signatures may be added from many threads, and each one is verified when it is added.
+ *
+ * @param multisigPubkey the multisig public key of secp256k1 members
+ * @param signDoc the sign doc the members sign
+ * @param bodyBytes the encoded body of the tx
+ */
+class MultisigSession(
+    private val multisigPubkey: MultisigPubKey,
+    private val signDoc: StdSignDoc,
+    private val bodyBytes: ByteString,
+) {
+    constructor(
+        multisigPubkey: AminoPubKey<MultisigThresholdPubkeyValue>,
+        signDoc: StdSignDoc,
+        bodyBytes: ByteString,
+    ) : this(MultisigPubKey.fromAminoPubKey(multisigPubkey), signDoc, bodyBytes)
+
+    val threshold get() = multisigPubkey.threshold
+
+    private val pubkeys = (0 until multisigPubkey.memberCount).map { multisigPubkey.pubkey(it) }
+
+    /**
+     * The digest of the sign doc, which the members sign
+     */
+    val signDigest: ByteArray = hashSignDoc(signDoc)
+
+    // guarded by this session
+    private val signatures = arrayOfNulls<ByteString>(pubkeys.size)
+    private var count = 0
+    private var assembling = false
+
+    /**
+     * Completed with the tx when the threshold is reached
+     */
+    val txRaw = CompletableFuture<TxRaw>()
+
+    val memberCount get() = pubkeys.size
+
+    val signatureCount: Int
+        @Synchronized get() = count
+
+    /**
+     * Returns the index of the member with [address], or -1 if it is not a member.
+     */
+    fun indexOf(address: Address) = multisigPubkey.indexOf(address.body)
+
+    /**
+     * Returns the index of the member with the bech32 [address] of any prefix, or -1 if it is not a member or
+     * [address] is not a bech32 address.
+     */
+    fun indexOf(address: String) = multisigPubkey.indexOf(address)
+
+    fun addSignature(address: Address, signature: ByteString): Boolean {
+        val index = indexOf(address)
+        if (index < 0) error("$address is not a member of the multisig")
+        return addSignature(index, signature)
+    }
+
+    fun addSignature(address: String, signature: ByteString): Boolean {
+        val index = indexOf(address)
+        if (index < 0) error("$address is not a member of the multisig")
+        return addSignature(index, signature)
+    }
+
+    /**
+     * Verifies and adds the signature of the member at [index]. The tx is assembled by the call reaching the
+     * threshold, and [txRaw] is completed with it.
+     *
+     * @return true if the signature is added, false if the member already signed or the tx is already assembled
+     */
+    fun addSignature(index: Int, signature: ByteString): Boolean {
+        if (index !in pubkeys.indices) error("Invalid member index: $index")
+        if (!Secp256k1Verifier.verify(pubkeys[index], signDigest, signature.toByteArray())) {
+            error("Invalid signature of the member $index")
+        }
+
+        val signed = put(index, signature) ?: return false
+        if (signed.isNotEmpty()) {
+            val signers = CompactBitArray(signed.size)
+            signed.forEachIndexed { member, it -> if (it != null) signers[member] = true }
+            try {
+                txRaw.complete(makeMultisignedTx(
+                    multisigPubkey.legacyAminoPubKey,
+                    signDoc.sequence.toLong(),
+                    signDoc.fee,
+                    bodyBytes,
+                    signers,
+                    signed.filterNotNull(),
+                ))
+            } catch (e: Exception) {
+                txRaw.completeExceptionally(e)
+            }
+        }
+        return true
+    }
+
+    /**
+     * Returns null if the signature is not added, the signatures to assemble if the threshold is reached with it,
+     * or an empty array otherwise.
+     */
+    @Synchronized
+    private fun put(index: Int, signature: ByteString): Array<ByteString?>? {
+        if (assembling || signatures[index] != null) return null
+        signatures[index] = signature
+        count++
+        if (count < threshold) return emptyArray()
+
+        assembling = true
+        return signatures.copyOf()
+    }
+}
@@ -1,10 +1,12 @@
 package network.finschia.sdk.legacymultisig
 
 import com.google.protobuf.ByteString
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import network.finschia.sdk.base.AsyncWallet
 import org.bitcoinj.core.Bech32
 import java.util.Base64
-import kotlin.math.ceil
-import kotlin.math.floor
 
 /**
  * Implement with reference to
@@ -12,28 +14,27 @@ import kotlin.math.floor
  */
 
 fun makeCompactBitArray(bits: List<Boolean>): cosmos.crypto.multisig.v1beta1.Multisig.CompactBitArray {
-    val byteCount = (ceil(bits.size.toDouble() / 8)).toInt()
-    val extraBits = (bits.size - floor(bits.size.toDouble() / 8) * 8).toInt()
-    val bytes = ByteArray(byteCount) // zero-filled
-
-    bits.forEachIndexed { index, element ->
-        val bytePos = floor(index.toDouble() / 8).toInt()
-        val bitPos = index % 8
-        1.shl(8 - 1 - bitPos)
-        if (element) bytes[bytePos] = (bytes[bytePos].toInt() or 1.shl(8 - 1 - bitPos)).toByte()
-    }
+    return CompactBitArray.of(bits).toProto()
+}
 
-    return cosmos.crypto.multisig.v1beta1.compactBitArray{
-        this.elems = ByteString.copyFrom(bytes)
-        this.extraBitsStored = extraBits
-    }
+/**
+ * Collects the signatures of the [members] of a multisig account on [signDoc], requesting them at the same time.
+ *
+ * @param prefix bech32 prefix of the addresses
+ * @return signatures by the addresses of the members, as [makeMultisignedTx] takes them
+ */
+suspend fun signMultisigSignDoc(signDoc: StdSignDoc, members: List<AsyncWallet>, prefix: String): Map<String, ByteString> {
+    val digest = hashSignDoc(signDoc)
+    return coroutineScope {
+        members.map { async { it.address.toBech32(prefix) to ByteString.copyFrom(it.signCompact(digest)) } }.awaitAll()
+    }.toMap()
 }
 
 fun makeMultisignedTx(multisigPubkey: AminoPubKey<MultisigThresholdPubkeyValue>, multiSigAccSeq: Int, fee: StdFee, bodyBytes: ByteString, signatures: Map<String, ByteString>, ): cosmos.tx.v1beta1.TxOuterClass.TxRaw {
     val addresses = signatures.toList().map { it.first }
     val prefix = Bech32.decode(addresses[0]).hrp
 
-    val signers: MutableList<Boolean> = MutableList(multisigPubkey.value.pubkeys.size){ false }
+    val signers = CompactBitArray(multisigPubkey.value.pubkeys.size)
     val signaturesList : MutableList<ByteString> = mutableListOf()
     multisigPubkey.value.pubkeys.forEachIndexed { index, element ->
         val signerAddress = pubkeyToAddress(element, prefix)
@@ -44,25 +45,59 @@ fun makeMultisignedTx(multisigPubkey: AminoPubKey<MultisigThresholdPubkeyValue>,
         }
     }
 
-    val signerInfo = cosmos.tx.v1beta1.signerInfo {
-        this.publicKey = com.google.protobuf.any {
-            this.typeUrl = "/cosmos.crypto.multisig.LegacyAminoPubKey"
-            this.value = cosmos.crypto.multisig.legacyAminoPubKey {
-                this.threshold = multisigPubkey.value.threshold.toInt()
-                this.publicKeys += multisigPubkey.value.pubkeys.map {
-                    com.google.protobuf.any {
-                        this.typeUrl = "/cosmos.crypto.secp256k1.PubKey"
-                        this.value = cosmos.crypto.secp256k1.pubKey {
-                            this.key = ByteString.copyFrom(Base64.getDecoder().decode(it.value))
-                        }.toByteString()
-                    }
-                }
-            }.toByteString()
+    val legacyAminoPubKey = makeLegacyAminoPubKey(
+        multisigPubkey.value.threshold.toInt(),
+        multisigPubkey.value.pubkeys.map { Base64.getDecoder().decode(it.value) },
+    )
+    return makeMultisignedTx(legacyAminoPubKey, multiSigAccSeq.toLong(), fee, bodyBytes, signers, signaturesList)
+}
+
+/**
+ * Same as the above but with the cached encodings of [multisigPubkey], so only the addresses in [signatures] are
+ * decoded. Signatures of addresses which are not members are ignored.
+ */
+fun makeMultisignedTx(multisigPubkey: MultisigPubKey, multiSigAccSeq: Long, fee: StdFee, bodyBytes: ByteString, signatures: Map<String, ByteString>): cosmos.tx.v1beta1.TxOuterClass.TxRaw {
+    val signed = arrayOfNulls<ByteString>(multisigPubkey.memberCount)
+    signatures.forEach { (address, signature) ->
+        val index = multisigPubkey.indexOf(address)
+        if (index >= 0) signed[index] = signature
+    }
+
+    val signers = CompactBitArray(signed.size)
+    signed.forEachIndexed { index, it -> if (it != null) signers[index] = true }
+    return makeMultisignedTx(
+        multisigPubkey.legacyAminoPubKey, multiSigAccSeq, fee, bodyBytes, signers, signed.filterNotNull(),
+    )
+}
+
+/**
+ * Returns the `LegacyAminoPubKey` of the secp256k1 [pubkeys], packed in an `Any`.
+ */
+internal fun makeLegacyAminoPubKey(threshold: Int, pubkeys: List<ByteArray>) = com.google.protobuf.any {
+    this.typeUrl = "/cosmos.crypto.multisig.LegacyAminoPubKey"
+    this.value = cosmos.crypto.multisig.legacyAminoPubKey {
+        this.threshold = threshold
+        this.publicKeys += pubkeys.map {
+            com.google.protobuf.any {
+                this.typeUrl = "/cosmos.crypto.secp256k1.PubKey"
+                this.value = cosmos.crypto.secp256k1.pubKey {
+                    this.key = ByteString.copyFrom(it)
+                }.toByteString()
+            }
         }
+    }.toByteString()
+}
+
+/**
+ * Returns the tx signed by the members marked in [signers], with their [signatures] in the order of the members.
+ */
+internal fun makeMultisignedTx(legacyAminoPubKey: com.google.protobuf.Any, multiSigAccSeq: Long, fee: StdFee, bodyBytes: ByteString, signers: CompactBitArray, signatures: List<ByteString>): cosmos.tx.v1beta1.TxOuterClass.TxRaw {
+    val signerInfo = cosmos.tx.v1beta1.signerInfo {
+        this.publicKey = legacyAminoPubKey
         this.modeInfo = cosmos.tx.v1beta1.modeInfo {
             this.multi = cosmos.tx.v1beta1.ModeInfoKt.multi {
-                this.bitarray = makeCompactBitArray(signers)
-                this.modeInfos += signaturesList.map {
+                this.bitarray = signers.toProto()
+                this.modeInfos += signatures.map {
                     cosmos.tx.v1beta1.modeInfo {
                         this.single = cosmos.tx.v1beta1.ModeInfoKt.single {
                             this.mode = cosmos.tx.signing.v1beta1.Signing.SignMode.SIGN_MODE_LEGACY_AMINO_JSON
@@ -71,7 +106,7 @@ fun makeMultisignedTx(multisigPubkey: AminoPubKey<MultisigThresholdPubkeyValue>,
                 }
             }
         }
-        this.sequence = multiSigAccSeq.toLong()
+        this.sequence = multiSigAccSeq
     }
 
     val authInfo = cosmos.tx.v1beta1.authInfo {
@@ -93,7 +128,7 @@ fun makeMultisignedTx(multisigPubkey: AminoPubKey<MultisigThresholdPubkeyValue>,
         this.bodyBytes = bodyBytes
         this.authInfoBytes = authInfoBytes
         this.signatures += cosmos.crypto.multisig.v1beta1.multiSignature {
-            this.signatures += signaturesList
+            this.signatures += signatures
         }.toByteString()
     }
 }
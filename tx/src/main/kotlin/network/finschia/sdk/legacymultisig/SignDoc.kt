@@ -51,6 +51,18 @@ data class StdSignDoc(
     @SerialName("msgs") val msgs: List<AminoMsg>,
 )
 
+private val canonicalJson = CanonicalJson()
+
+/**
+ * Returns the sign bytes of [signDoc], the sorted JSON without null values
+ */
+fun serializeSignDoc(signDoc: StdSignDoc): ByteArray = canonicalJson.encodeToByteArray(StdSignDoc.serializer(), signDoc)
+
+/**
+ * Returns the SHA-256 hash of the sign bytes of [signDoc], which is the message to sign
+ */
+fun hashSignDoc(signDoc: StdSignDoc): ByteArray = canonicalJson.sha256(StdSignDoc.serializer(), signDoc)
+
 fun JsonElement.sort(): JsonElement {
     return when (this) {
         is JsonObject -> JsonObject(this.jsonObject.toMap().map { it.key to it.value.sort() }.sortedBy { it.first }.toMap())
@@ -0,0 +1,138 @@
+package network.finschia.sdk.base
+
+import network.finschia.sdk.account.HDWallet
+import network.finschia.sdk.account.KeyWallet
+import network.finschia.sdk.legacymultisig.StdFee
+import network.finschia.sdk.legacymultisig.StdSignDoc
+import network.finschia.sdk.legacymultisig.hashSignDoc
+import network.finschia.sdk.legacymultisig.signMultisigSignDoc
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.Assertions.*
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class AsyncWalletTest {
+    val mnemonic = "mind flame tobacco sense move hammer drift crime ring globe art gaze cinnamon helmet cruise special produce notable negative wait path scrap recall have"
+    val hdWallet = HDWallet.loadFromMnemonic(mnemonic)
+    val aliceKey = hdWallet.getKeyWallet(0)
+    val bobKey = hdWallet.getKeyWallet(1)
+
+    // an in-process stand-in of a signing daemon, counting its round trips
+    class RemoteSigner(private val key: KeyWallet) {
+        val roundTrips = AtomicInteger()
+
+        suspend fun signBatch(messages: List<ByteArray>): List<ByteArray> {
+            roundTrips.incrementAndGet()
+            delay(5)
+            return messages.map { key.signCompact(it) }
+        }
+    }
+
+    private fun newTx(sequence: Long) = Tx.newBuilder()
+        .setChainId("test")
+        .addMessage(com.google.protobuf.any {
+            typeUrl = "/cosmos.bank.v1beta1.MsgSend"
+            value = cosmos.bank.v1beta1.msgSend {
+                fromAddress = aliceKey.address.toBech32("link")
+                toAddress = bobKey.address.toBech32("link")
+            }.toByteString()
+        })
+        .addSigner(aliceKey.asAsyncWallet(), sequence)
+        .setFee(cosmos.tx.v1beta1.fee { gasLimit = 10000 })
+        .build()
+
+    @Test fun batchConcurrentRequests() = runBlocking<Unit> {
+        val remote = RemoteSigner(aliceKey)
+        BatchingAsyncWallet(aliceKey.pubKey, signBatch = remote::signBatch).use { wallet ->
+            assertEquals(aliceKey.address, wallet.address)
+
+            val messages = (0 until 300).map { ByteArray(32) { i -> (i * it).toByte() } }
+            val signatures = messages.map { async { wallet.signCompact(it) } }.awaitAll()
+
+            assertEquals(messages.map { aliceKey.signCompact(it).toList() }, signatures.map { it.toList() })
+            assertTrue(remote.roundTrips.get() < 10, "the requests must be sent in batches")
+        }
+    }
+
+    @Test fun signBatch() = runBlocking<Unit> {
+        val remote = RemoteSigner(aliceKey)
+        BatchingAsyncWallet(aliceKey.pubKey, signBatch = remote::signBatch).use { wallet ->
+            val txs = (0L until 100L).map { newTx(it) }
+
+            Tx.signBatch(wallet, txs, 0)
+
+            assertEquals(1, remote.roundTrips.get())
+            txs.forEach { assertTrue(Tx.verify(it.raw(), "test", listOf(0L))) }
+        }
+    }
+
+    @Test fun signTx() = runBlocking<Unit> {
+        val expected = newTx(1).apply { sign(aliceKey, 0) }
+
+        val tx = newTx(1)
+        tx.sign(aliceKey.asAsyncWallet(), 0)
+        assertEquals(expected.hash(), tx.hash())
+
+        val both = Tx.newBuilder()
+            .setChainId("test")
+            .addSigner(aliceKey.pubKey, 1)
+            .addSigner(bobKey.pubKey, 0)
+            .build()
+        both.signAll(listOf(aliceKey.asAsyncWallet() to 0L, bobKey.asAsyncWallet() to 1L))
+        assertTrue(Tx.verify(both.raw(), "test", listOf(0L, 1L)))
+    }
+
+    @Test fun signerFailure() = runBlocking<Unit> {
+        BatchingAsyncWallet(aliceKey.pubKey, signBatch = { listOf() }).use { wallet ->
+            assertThrows(IllegalStateException::class.java) { runBlocking { wallet.signCompact(ByteArray(32)) } }
+        }
+    }
+
+    @Test fun invalidLimits() {
+        val maxInFlight = assertThrows(IllegalArgumentException::class.java) {
+            BatchingAsyncWallet(aliceKey.pubKey, maxInFlight = 0, signBatch = { it })
+        }
+        assertEquals("maxInFlight must be positive: 0", maxInFlight.message)
+        assertThrows(IllegalArgumentException::class.java) {
+            BatchingAsyncWallet(aliceKey.pubKey, maxBatchSize = 0, signBatch = { it })
+        }
+    }
+
+    @Test fun close() = runBlocking<Unit> {
+        val wallet = BatchingAsyncWallet(aliceKey.pubKey, signBatch = { delay(60_000); it })
+        val pending = async { wallet.signCompact(ByteArray(32)) }
+        delay(50)
+
+        wallet.close()
+
+        assertThrows(CancellationException::class.java) { runBlocking { pending.await() } }
+    }
+
+    @Test fun multisigSignDoc() = runBlocking<Unit> {
+        val signDoc = StdSignDoc(
+            accountNumber = "1",
+            sequence = "0",
+            timeoutHeight = null,
+            chainId = "test",
+            memo = "",
+            fee = StdFee(amount = listOf(), gas = "200000"),
+            msgs = listOf(),
+        )
+        val members = listOf(aliceKey, bobKey)
+
+        val signatures = signMultisigSignDoc(signDoc, members.map { it.asAsyncWallet() }, "link")
+
+        assertEquals(members.map { it.address.toBech32("link") }.toSet(), signatures.keys)
+        members.forEach {
+            val signature = signatures.getValue(it.address.toBech32("link")).toByteArray()
+            assertTrue(it.pubKey.verify(hashSignDoc(signDoc), signature))
+        }
+    }
+}
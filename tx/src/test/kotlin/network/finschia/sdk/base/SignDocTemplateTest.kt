@@ -0,0 +1,89 @@
+package network.finschia.sdk.base
+
+import com.google.protobuf.ByteString
+import network.finschia.sdk.account.HDWallet
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+
+class SignDocTemplateTest {
+    val mnemonic = "mind flame tobacco sense move hammer drift crime ring globe art gaze cinnamon helmet cruise special produce notable negative wait path scrap recall have"
+    val hdWallet = HDWallet.loadFromMnemonic(mnemonic)
+    val aliceKey = hdWallet.getKeyWallet(0)
+    val bobKey = hdWallet.getKeyWallet(1)
+
+    private fun bankSendBody(amount: String) = cosmos.tx.v1beta1.txBody {
+        messages += com.google.protobuf.any {
+            typeUrl = "/cosmos.bank.v1beta1.MsgSend"
+            value = cosmos.bank.v1beta1.msgSend {
+                fromAddress = aliceKey.address.toBech32("link")
+                toAddress = bobKey.address.toBech32("link")
+                this.amount += cosmos.base.v1beta1.coin {
+                    this.amount = amount
+                    denom = "tcony"
+                }
+            }.toByteString()
+        }
+    }
+
+    @Test fun signDocBytes() {
+        val tx = Tx.newBuilder()
+            .setChainId("test")
+            .addMessage(bankSendBody("10000").getMessages(0))
+            .addSigner(aliceKey, 1)
+            .setFee(cosmos.tx.v1beta1.fee { gasLimit = 10000 })
+            .build()
+        val template = tx.signDocTemplate()
+        assertEquals(1, template.signerCount)
+
+        // the template must reproduce the sign doc of the tx itself
+        assertArrayEquals(tx.signDoc(0).toByteArray(), template.signDocBytes(tx.signDoc(0).bodyBytes, 0, 1))
+
+        for (sequence in listOf(0L, 1L, 127L, 128L, 300L, Long.MAX_VALUE)) {
+            for (accountNumber in listOf(0L, 1L, 128L, 1L shl 40)) {
+                val body = bankSendBody(sequence.toString()).toByteString()
+                val expectedAuthInfo = Tx.newBuilder()
+                    .addSigner(aliceKey, sequence)
+                    .setFee(cosmos.tx.v1beta1.fee { gasLimit = 10000 })
+                    .build()
+                    .signDoc(0)
+                    .authInfoBytes
+                val expected = cosmos.tx.v1beta1.signDoc {
+                    chainId = "test"
+                    bodyBytes = body
+                    authInfoBytes = expectedAuthInfo
+                    this.accountNumber = accountNumber
+                }
+
+                assertArrayEquals(expectedAuthInfo.toByteArray(), template.authInfoBytes(sequence))
+                assertArrayEquals(expected.toByteArray(), template.signDocBytes(body, accountNumber, sequence))
+            }
+        }
+    }
+
+    @Test fun multipleSigners() {
+        val fee = cosmos.tx.v1beta1.fee {
+            gasLimit = 200000
+            amount += cosmos.base.v1beta1.coin {
+                amount = "2000"
+                denom = "tcony"
+            }
+        }
+        val template = Tx.newBuilder()
+            .addSigner(aliceKey, 0)
+            .addSigner(bobKey, 0)
+            .setFee(fee)
+            .build()
+            .signDocTemplate()
+        assertEquals(2, template.signerCount)
+
+        val tx = Tx.newBuilder()
+            .addSigner(aliceKey, 5)
+            .addSigner(bobKey, 0)
+            .setFee(fee)
+            .build()
+        assertArrayEquals(tx.signDoc(0).authInfoBytes.toByteArray(), template.authInfoBytes(5, 0))
+        assertArrayEquals(tx.signDoc(7).toByteArray(), template.signDocBytes(ByteString.EMPTY, 7, 5, 0))
+
+        assertThrows(IllegalArgumentException::class.java) { template.authInfoBytes(5) }
+    }
+}
@@ -5,6 +5,11 @@ import network.finschia.sdk.account.HDWallet
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.Assertions.*
 
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.runBlocking
+
+import java.util.concurrent.Executors
+
 class TxTest {
     val mnemonic = "mind flame tobacco sense move hammer drift crime ring globe art gaze cinnamon helmet cruise special produce notable negative wait path scrap recall have"
     val hdWallet = HDWallet.loadFromMnemonic(mnemonic)
@@ -57,4 +62,97 @@ class TxTest {
         assertEquals(simdHash, tx.hash(),
                      "sign by the irrelevent must have no effect")
     }
+
+    @Test fun verify() {
+        val aliceKey = hdWallet.getKeyWallet(0)
+        val bobKey = hdWallet.getKeyWallet(1)
+
+        val msgSend = cosmos.bank.v1beta1.msgSend {
+            fromAddress = aliceKey.address.toBech32("link")
+            toAddress = bobKey.address.toBech32("link")
+            amount += cosmos.base.v1beta1.coin {
+                amount = "10000"
+                denom = "tcony"
+            }
+        }
+
+        val tx = Tx.newBuilder()
+            .setChainId("test")
+            .addMessage(com.google.protobuf.any {
+                typeUrl = "/cosmos.bank.v1beta1.MsgSend"
+                value = msgSend.toByteString()
+            })
+            .addSigner(aliceKey, 1)
+            .addSigner(bobKey, 0)
+            .setFee(cosmos.tx.v1beta1.fee { gasLimit = 10000 })
+            .build()
+
+        tx.sign(aliceKey, 0)
+        tx.sign(bobKey, 1)
+
+        assertTrue(Tx.verify(tx.raw(), "test", listOf(0L, 1L)))
+        assertFalse(Tx.verify(tx.raw(), "test", listOf(1L, 0L)), "account numbers must match the signers")
+        assertFalse(Tx.verify(tx.raw(), "other", listOf(0L, 1L)), "chain id must match")
+        assertThrows(IllegalArgumentException::class.java) { Tx.verify(tx.raw(), "test", listOf(0L)) }
+    }
+
+    @Test fun memoizedRaw() {
+        val aliceKey = hdWallet.getKeyWallet(0)
+        val bobKey = hdWallet.getKeyWallet(1)
+
+        val tx = Tx.newBuilder()
+            .setChainId("test")
+            .addSigner(aliceKey, 1)
+            .addSigner(bobKey, 0)
+            .setFee(cosmos.tx.v1beta1.fee { gasLimit = 10000 })
+            .build()
+
+        tx.sign(aliceKey, 0)
+        assertThrows(NullPointerException::class.java, { tx.raw() }, "all the signers must sign first")
+
+        tx.sign(bobKey, 1)
+        val raw = tx.raw()
+        val hash = tx.hash()
+        assertSame(raw, tx.raw())
+        assertSame(hash, tx.hash())
+
+        // the same signature again
+        tx.sign(bobKey, 1)
+        assertSame(raw, tx.raw())
+
+        // a different signature
+        tx.sign(bobKey, 2)
+        assertNotEquals(raw, tx.raw())
+        assertNotEquals(hash, tx.hash())
+        assertTrue(Tx.verify(tx.raw(), "test", listOf(0L, 2L)))
+    }
+
+    @Test fun signAll() = runBlocking<Unit> {
+        val keys = hdWallet.deriveRange(0, 0, 12)
+        val outsider = hdWallet.getKeyWallet(100)
+        fun newTx() = keys.fold(Tx.newBuilder().setChainId("test")) { builder, key -> builder.addSigner(key, 0) }
+            .setFee(cosmos.tx.v1beta1.fee { gasLimit = 10000 })
+            .build()
+
+        val sequential = newTx()
+        keys.forEachIndexed { index, key -> sequential.sign(key, index.toLong()) }
+
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val parallel = newTx()
+            parallel.signAll(
+                keys.mapIndexed { index, key -> key to index.toLong() } + (outsider to 0L),
+                executor.asCoroutineDispatcher(),
+            )
+            assertEquals(sequential.raw(), parallel.raw())
+            assertTrue(Tx.verify(parallel.raw(), "test", keys.indices.map { it.toLong() }))
+        } finally {
+            executor.shutdown()
+        }
+
+        // on the default dispatcher by default
+        val parallel = newTx()
+        parallel.signAll(keys.mapIndexed { index, key -> key to index.toLong() })
+        assertEquals(sequential.hash(), parallel.hash())
+    }
 }
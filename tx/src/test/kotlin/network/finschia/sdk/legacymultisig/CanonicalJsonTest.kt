@@ -0,0 +1,109 @@
+package network.finschia.sdk.legacymultisig
+
+import kotlinx.serialization.KSerializer
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerialName
+import kotlinx.serialization.builtins.ListSerializer
+import kotlinx.serialization.builtins.MapSerializer
+import kotlinx.serialization.builtins.nullable
+import kotlinx.serialization.builtins.serializer
+import kotlinx.serialization.json.*
+import org.bouncycastle.jcajce.provider.digest.SHA256
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+class CanonicalJsonTest {
+    @Serializable
+    data class Unsorted(
+        @SerialName("zeta") val zeta: Int,
+        @SerialName("alpha") val alpha: String?,
+        @SerialName("mid") val mid: List<String?>,
+        @SerialName("beta") val beta: Unsorted?,
+    )
+
+    private val canonicalJson = CanonicalJson()
+
+    private fun <T> expected(serializer: KSerializer<T>, value: T): String =
+        Json.encodeToJsonElement(serializer, value).removeNull().sort().toString()
+
+    private fun <T> assertCanonical(serializer: KSerializer<T>, value: T) {
+        val expected = expected(serializer, value)
+        Assertions.assertArrayEquals(expected.toByteArray(), canonicalJson.encodeToByteArray(serializer, value))
+        Assertions.assertArrayEquals(
+            SHA256.Digest().digest(expected.toByteArray()),
+            canonicalJson.sha256(serializer, value)
+        )
+    }
+
+    @Test
+    fun encodeSignDoc() {
+        val signDoc = StdSignDoc(
+            accountNumber = "1",
+            sequence = "15",
+            timeoutHeight = null,
+            chainId = "finschia-2",
+            memo = "memo",
+            fee = StdFee(amount = listOf(Coin(denom = "cony", amount = "2000")), gas = "200000"),
+            msgs = listOf(
+                AminoMsg(
+                    type = "cosmos-sdk/MsgSend",
+                    value = Json.encodeToJsonElement(
+                        AminoMsgSendValue(
+                            amount = listOf(Coin(denom = "cony", amount = "100")),
+                            fromAddress = "link1from",
+                            toAddress = "link1to",
+                        )
+                    )
+                ),
+                AminoMsg(
+                    type = "custom",
+                    value = Json.parseToJsonElement(
+                        "{\"z\":[1,null,{\"b\":null,\"a\":true}],\"y\":null,\"x\":{\"d\":1.5,\"c\":\"s\"}}"
+                    )
+                ),
+            ),
+        )
+
+        assertCanonical(StdSignDoc.serializer(), signDoc)
+        Assertions.assertEquals(expected(StdSignDoc.serializer(), signDoc), String(serializeSignDoc(signDoc)))
+        Assertions.assertArrayEquals(
+            SHA256.Digest().digest(expected(StdSignDoc.serializer(), signDoc).toByteArray()),
+            hashSignDoc(signDoc)
+        )
+    }
+
+    @Test
+    fun encodeClassWithUnsortedFields() {
+        val nested = Unsorted(zeta = 1, alpha = null, mid = listOf("a", null, "b"), beta = null)
+        assertCanonical(Unsorted.serializer(), Unsorted(zeta = 2, alpha = "x", mid = listOf(), beta = nested))
+        assertCanonical(Unsorted.serializer(), Unsorted(zeta = 2, alpha = null, mid = listOf(null), beta = null))
+    }
+
+    @Test
+    fun encodeEscapedStrings() {
+        val value = (0 until 0x800).map { it.toChar() }.joinToString("") + "\u2028\uffff\ud83d\ude00\ud800"
+        assertCanonical(String.serializer(), value)
+    }
+
+    @Test
+    fun encodeMaps() {
+        val serializer = MapSerializer(String.serializer(), Int.serializer().nullable)
+        assertCanonical(serializer, linkedMapOf("b" to 1, "a" to null, "c" to 3, "aa" to 4))
+        assertCanonical(MapSerializer(Int.serializer(), String.serializer()), mapOf(10 to "x", 2 to "y"))
+    }
+
+    @Test
+    fun encodeLists() {
+        assertCanonical(ListSerializer(Int.serializer().nullable), listOf(null, 1, null, 2, null))
+        assertCanonical(JsonElement.serializer(), Json.parseToJsonElement("[[null],{},[],{\"a\":null}]"))
+    }
+
+    @Test
+    fun encodeNull() {
+        val error = assertThrows<IllegalStateException> {
+            canonicalJson.encodeToString(JsonElement.serializer(), JsonNull)
+        }
+        Assertions.assertEquals("unexpected token", error.message)
+    }
+}
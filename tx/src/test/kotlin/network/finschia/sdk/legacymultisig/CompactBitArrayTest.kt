@@ -0,0 +1,73 @@
+package network.finschia.sdk.legacymultisig
+
+import com.google.protobuf.ByteString
+import cosmos.crypto.multisig.v1beta1.compactBitArray
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+class CompactBitArrayTest {
+    fun byteArrayOfInts(vararg ints: Int) = ByteArray(ints.size) { pos -> ints[pos].toByte() }
+
+    @Test
+    fun setAndGet() {
+        val bits = CompactBitArray(130)
+        listOf(0, 5, 63, 64, 127, 129).forEach { bits[it] = true }
+        bits[5] = false
+
+        Assertions.assertEquals(5, bits.count())
+        Assertions.assertTrue(bits[63])
+        Assertions.assertFalse(bits[5])
+        Assertions.assertArrayEquals(intArrayOf(0, 63, 64, 127, 129), bits.signerIndices())
+        Assertions.assertEquals(63, bits.nextSetBit(1))
+        Assertions.assertEquals(129, bits.nextSetBit(128))
+        Assertions.assertEquals(-1, bits.nextSetBit(130))
+
+        assertThrows<IllegalStateException> { bits[130] }
+        assertThrows<IllegalStateException> { bits[-1] = true }
+    }
+
+    @Test
+    fun toProto() {
+        val bits = CompactBitArray.of(listOf(true, false, false, true, false, false, false, false, false, true))
+        Assertions.assertEquals("x__x_____x", bits.toString())
+        Assertions.assertEquals(compactBitArray {
+            elems = ByteString.copyFrom(byteArrayOfInts(0b10010000, 0b01000000))
+            extraBitsStored = 2
+        }, bits.toProto())
+        Assertions.assertEquals(compactBitArray {
+            elems = ByteString.copyFrom(byteArrayOfInts(0b11111111))
+            extraBitsStored = 0
+        }, CompactBitArray.of(List(8) { true }).toProto())
+        Assertions.assertEquals(compactBitArray {}, CompactBitArray(0).toProto())
+    }
+
+    @Test
+    fun fromProto() {
+        listOf(0, 1, 7, 8, 9, 64, 65, 200).forEach { size ->
+            val bits = CompactBitArray(size)
+            (0 until size step 3).forEach { bits[it] = true }
+
+            val decoded = CompactBitArray.fromProto(bits.toProto())
+            Assertions.assertEquals(size, decoded.size)
+            Assertions.assertEquals(bits, decoded)
+        }
+
+        // the unused bits of the last byte are ignored
+        val bits = CompactBitArray.fromProto(compactBitArray {
+            elems = ByteString.copyFrom(byteArrayOfInts(0b01111111))
+            extraBitsStored = 1
+        })
+        Assertions.assertEquals("_", bits.toString())
+
+        assertThrows<IllegalStateException> {
+            CompactBitArray.fromProto(compactBitArray { extraBitsStored = 1 })
+        }
+        assertThrows<IllegalStateException> {
+            CompactBitArray.fromProto(compactBitArray {
+                elems = ByteString.copyFrom(byteArrayOfInts(0))
+                extraBitsStored = 8
+            })
+        }
+    }
+}
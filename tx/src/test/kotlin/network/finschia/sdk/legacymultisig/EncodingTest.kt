@@ -80,4 +80,41 @@ class EncodingTest {
         val bech32data4 = Bech32Utils.convertBits(encodedPubkey4, 0, encodedPubkey4.size, 8, 5, true)
         Assertions.assertEquals(testgroup4PubkeyBech32, Bech32.encode("wasmpub", bech32data4))
     }
+
+    @Test
+    @Suppress("DEPRECATION")
+    fun encodeUvarint() {
+        Assertions.assertEquals(0x00.toByte(), encodeUvarint("0"))
+        Assertions.assertEquals(0x7f.toByte(), encodeUvarint("127"))
+        assertThrows<IllegalStateException> { encodeUvarint("128") }
+    }
+
+    @Test
+    fun encodeUvarintBytes() {
+        Assertions.assertArrayEquals(fromHex("00"), encodeUvarintBytes("0"))
+        Assertions.assertArrayEquals(fromHex("7f"), encodeUvarintBytes("127"))
+        Assertions.assertArrayEquals(fromHex("8001"), encodeUvarintBytes("128"))
+        Assertions.assertArrayEquals(fromHex("ac02"), encodeUvarintBytes("300"))
+        assertThrows<IllegalStateException> { encodeUvarintBytes("-1") }
+    }
+
+    @Test
+    fun encodeAminoPubkeyForLargeMultisig() {
+        val members = (0 until 200).map {
+            val key = ByteArray(33) { i -> (i + it).toByte() }
+            key[0] = 0x02
+            encodeSecp256k1Pubkey(key)
+        }
+        val group = AminoPubKey(
+            type = "tendermint/PubKeyMultisigThreshold",
+            value = MultisigThresholdPubkeyValue(threshold = "150", pubkeys = members),
+        )
+
+        var expected = fromHex("22c1f7e2" + "08" + "9601")
+        members.forEach {
+            val member = encodeAminoPubkey(it)
+            expected += fromHex("12" + "26") + member
+        }
+        Assertions.assertArrayEquals(expected, encodeAminoPubkey(group))
+    }
 }
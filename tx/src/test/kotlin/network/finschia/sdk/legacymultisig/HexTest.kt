@@ -31,6 +31,8 @@ class HexTest {
         assertThrows<IllegalStateException> { fromHex(" aa") }
         assertThrows<IllegalStateException> { fromHex("a a") }
         assertThrows<IllegalStateException> { fromHex("gg") }
+        assertThrows<IllegalStateException> { fromHex("a[") }
+        assertThrows<IllegalStateException> { fromHex("_a") }
     }
 
     @Test
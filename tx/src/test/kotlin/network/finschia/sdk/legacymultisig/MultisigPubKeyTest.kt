@@ -0,0 +1,66 @@
+package network.finschia.sdk.legacymultisig
+
+import com.google.protobuf.ByteString
+import network.finschia.sdk.account.HDWallet
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Base64
+
+class MultisigPubKeyTest {
+    @Test
+    fun sameEncodingsAsAminoPubKey() {
+        val pubkey = MultisigPubKey.fromAminoPubKey(testgroup1)
+        Assertions.assertEquals(2, pubkey.threshold)
+        Assertions.assertEquals(3, pubkey.memberCount)
+        Assertions.assertEquals(testgroup1, pubkey.toAminoPubKey())
+
+        Assertions.assertArrayEquals(encodeAminoPubkey(testgroup1), pubkey.aminoBytes)
+        Assertions.assertArrayEquals(pubkeyToRawAddress(testgroup1), pubkey.rawAddress)
+        Assertions.assertEquals(pubkeyToAddress(testgroup1, "link"), pubkey.toBech32("link"))
+        Assertions.assertEquals(pubkeyToAddress(testgroup1, "tlink"), pubkey.toBech32("tlink"))
+        Assertions.assertSame(pubkey.toBech32("link"), pubkey.toBech32("link"))
+        Assertions.assertSame(pubkey.legacyAminoPubKey, pubkey.legacyAminoPubKey)
+
+        Assertions.assertEquals(1, pubkey.indexOf(pubkeyToAddress(test2, "link")))
+        Assertions.assertEquals(2, pubkey.indexOf(pubkeyToRawAddress(test3)))
+        Assertions.assertEquals(-1, pubkey.indexOf(pubkeyToAddress(testgroup2, "link")))
+    }
+
+    @Test
+    fun sameTxAsAminoPubKey() {
+        val mnemonic = "mind flame tobacco sense move hammer drift crime ring globe art gaze cinnamon helmet cruise special produce notable negative wait path scrap recall have"
+        val hdWallet = HDWallet.loadFromMnemonic(mnemonic)
+        val wallets = (0 until 5).map { hdWallet.getKeyWallet(it) }
+        val aminoPubKey = createMultisigThresholdPubkey(wallets.map { encodeSecp256k1Pubkey(it.pubKey.body) }, 3, txSigLimit = 7)
+        val pubkey = MultisigPubKey.of(wallets.map { it.pubKey.body }, 3)
+        Assertions.assertEquals(MultisigPubKey.fromAminoPubKey(aminoPubKey), pubkey)
+
+        val fee = StdFee(amount = listOf(Coin(denom = "cony", amount = "20")), gas = "200000")
+        val bodyBytes = cosmos.tx.v1beta1.txBody { memo = "memo" }.toByteString()
+        val signatures = listOf(4, 0, 2).associate {
+            wallets[it].address.toBech32("link") to ByteString.copyFrom(byteArrayOf(it.toByte()))
+        }
+        Assertions.assertEquals(
+            makeMultisignedTx(aminoPubKey, 7, fee, bodyBytes, signatures),
+            makeMultisignedTx(pubkey, 7, fee, bodyBytes, signatures),
+        )
+    }
+
+    @Test
+    fun invalidKeys() {
+        val keys = testgroup1.value.pubkeys.map { Base64.getDecoder().decode(it.value) }
+        assertThrows<IllegalStateException> { MultisigPubKey(4, keys) }
+        assertThrows<IllegalStateException> { MultisigPubKey(0, keys) }
+        assertThrows<IllegalStateException> { MultisigPubKey(1, listOf(keys[0].copyOf(32))) }
+        assertThrows<IllegalStateException> { MultisigPubKey(1, listOf(keys[0].copyOf().also { it[0] = 4 })) }
+        assertThrows<IllegalStateException> {
+            MultisigPubKey.fromAminoPubKey(testgroup1.copy(type = "tendermint/PubKeySecp256k1"))
+        }
+
+        // the keys are copied
+        val pubkey = MultisigPubKey(2, keys)
+        keys[0][1] = (keys[0][1] + 1).toByte()
+        Assertions.assertEquals(testgroup1, pubkey.toAminoPubKey())
+    }
+}
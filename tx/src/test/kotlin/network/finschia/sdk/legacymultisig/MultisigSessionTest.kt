@@ -0,0 +1,110 @@
+package network.finschia.sdk.legacymultisig
+
+import com.google.protobuf.ByteString
+import cosmos.crypto.multisig.v1beta1.Multisig.MultiSignature
+import cosmos.tx.v1beta1.TxOuterClass.AuthInfo
+import network.finschia.sdk.account.HDWallet
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+
+class MultisigSessionTest {
+    private val mnemonic = "mind flame tobacco sense move hammer drift crime ring globe art gaze cinnamon helmet cruise special produce notable negative wait path scrap recall have"
+    private val hdWallet = HDWallet.loadFromMnemonic(mnemonic)
+    private val wallets = (0 until 7).map { hdWallet.getKeyWallet(it) }
+    private val multisigPubkey = createMultisigThresholdPubkey(
+        wallets.map { encodeSecp256k1Pubkey(it.pubKey.body) }, 4, txSigLimit = 7
+    )
+    private val members = multisigPubkey.value.pubkeys.map { pubkey ->
+        wallets.first { encodeSecp256k1Pubkey(it.pubKey.body) == pubkey }
+    }
+
+    private val signDoc = StdSignDoc(
+        accountNumber = "9",
+        sequence = "3",
+        timeoutHeight = null,
+        chainId = "sim",
+        memo = "",
+        fee = StdFee(amount = listOf(Coin(denom = "cony", amount = "20")), gas = "200000"),
+        msgs = listOf(),
+    )
+    private val bodyBytes = cosmos.tx.v1beta1.txBody { memo = "" }.toByteString()
+
+    private fun sign(index: Int) = ByteString.copyFrom(members[index].signCompact(hashSignDoc(signDoc)))
+
+    @Test
+    fun assembleAtThreshold() {
+        val session = MultisigSession(multisigPubkey, signDoc, bodyBytes)
+        Assertions.assertEquals(7, session.memberCount)
+
+        Assertions.assertTrue(session.addSignature(members[5].address, sign(5)))
+        Assertions.assertTrue(session.addSignature(members[1].address.toBech32("link"), sign(1)))
+        Assertions.assertTrue(session.addSignature(2, sign(2)))
+        Assertions.assertFalse(session.addSignature(2, sign(2)))
+        Assertions.assertFalse(session.txRaw.isDone)
+
+        Assertions.assertTrue(session.addSignature(members[6].address.toBech32("tlink"), sign(6)))
+        Assertions.assertEquals(4, session.signatureCount)
+        Assertions.assertFalse(session.addSignature(0, sign(0)))
+
+        val expected = makeMultisignedTx(
+            multisigPubkey, 3, signDoc.fee, bodyBytes,
+            listOf(1, 2, 5, 6).associate { members[it].address.toBech32("link") to sign(it) },
+        )
+        Assertions.assertEquals(expected, session.txRaw.getNow(null))
+    }
+
+    @Test
+    fun rejectInvalidSignatures() {
+        val session = MultisigSession(multisigPubkey, signDoc, bodyBytes)
+        val outsider = hdWallet.getKeyWallet(7)
+
+        val notMember = assertThrows<IllegalStateException> {
+            session.addSignature(outsider.address, ByteString.copyFrom(outsider.signCompact(session.signDigest)))
+        }
+        Assertions.assertEquals("${outsider.address} is not a member of the multisig", notMember.message)
+        Assertions.assertEquals(-1, session.indexOf(outsider.address.toBech32("link")))
+        Assertions.assertEquals(-1, session.indexOf("link1invalid"))
+        Assertions.assertEquals(-1, session.indexOf(""))
+        val malformed = assertThrows<IllegalStateException> { session.addSignature("not bech32", sign(0)) }
+        Assertions.assertEquals("not bech32 is not a member of the multisig", malformed.message)
+
+        val invalid = assertThrows<IllegalStateException> { session.addSignature(0, sign(1)) }
+        Assertions.assertEquals("Invalid signature of the member 0", invalid.message)
+        assertThrows<IllegalStateException> { session.addSignature(7, sign(1)) }
+        Assertions.assertEquals(0, session.signatureCount)
+    }
+
+    @Test
+    fun collectConcurrently() {
+        val signatures = members.indices.map { sign(it) }
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            repeat(20) {
+                val session = MultisigSession(multisigPubkey, signDoc, bodyBytes)
+                CompletableFuture.allOf(*members.indices.map { index ->
+                    CompletableFuture.runAsync({ session.addSignature(index, signatures[index]) }, executor)
+                }.toTypedArray()).join()
+
+                val txRaw = session.txRaw.join()
+                val modeInfo = AuthInfo.parseFrom(txRaw.authInfoBytes).getSignerInfos(0).modeInfo.multi
+                val signed = CompactBitArray.fromProto(modeInfo.bitarray).signerIndices().toList()
+                Assertions.assertEquals(4, signed.size)
+                Assertions.assertEquals(
+                    signed.map { signatures[it] },
+                    MultiSignature.parseFrom(txRaw.getSignatures(0)).signaturesList,
+                )
+            }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun invalidThreshold() {
+        val pubkey = multisigPubkey.copy(value = multisigPubkey.value.copy(threshold = "8"))
+        assertThrows<IllegalStateException> { MultisigSession(pubkey, signDoc, bodyBytes) }
+    }
+}
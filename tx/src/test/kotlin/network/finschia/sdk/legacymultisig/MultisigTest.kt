@@ -49,6 +49,13 @@ class MultisigTest {
         Assertions.assertEquals(-1, compareArrays(byteArrayOf(5, 5), byteArrayOf(6)))
     }
 
+    @Test
+    fun compareArraysForUnsignedBytes() {
+        Assertions.assertEquals(1, compareArrays(byteArrayOf(0x80.toByte()), byteArrayOf(0x7f)))
+        Assertions.assertEquals(-1, compareArrays(byteArrayOf(0x7f, 0xff.toByte()), byteArrayOf(0xff.toByte())))
+        Assertions.assertEquals(0, compareArrays(byteArrayOf(0xff.toByte(), 0), byteArrayOf(0xff.toByte(), 0)))
+    }
+
     @Test
     fun compareArraysForSortEnable() {
         val value = listOf(